@@ -2,14 +2,22 @@ package com.example.isejobsboard;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Import; 
 import com.example.isejobsboard.config.SecurityConfig; 
 
 @SpringBootApplication
 @Import(SecurityConfig.class)
 public class IseJobsBoardApplication {
+    // For StartupTimings, how long the JVM took to get here
+    public static volatile long mainStartedAt;
 
     public static void main(String[] args) {
-        SpringApplication.run(IseJobsBoardApplication.class, args);
+        mainStartedAt = System.currentTimeMillis();
+
+        SpringApplication application = new SpringApplication(IseJobsBoardApplication.class);
+        // Keeps the startup steps so StartupTimings can report the slowest
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 }
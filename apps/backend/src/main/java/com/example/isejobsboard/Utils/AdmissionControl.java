@@ -0,0 +1,241 @@
+package com.example.isejobsboard.Utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An adaptive limit on requests in flight, so an overloaded backend turns the excess away in a millisecond instead
+ * of letting every Tomcat thread pile up behind a slow database.
+ * <p>
+ * The limit grows by one per round of requests while latency stays within {@code ADMISSION_LATENCY_TOLERANCE}
+ * (default 2) times the baseline, the fastest request to the same route in the last
+ * {@code ADMISSION_BASELINE_SECONDS} (default 60). Only 2xx, 3xx and 5xx answers count: a 4xx is turned away before
+ * the work the limit protects. Admin routes and streamed lists take as long as their data, so they count towards
+ * requests in flight but not towards latency, see {@link #streamed()}.
+ * On a slower request or a 5xx it's cut by a tenth, at most once per that request's latency (and per 100 ms), so
+ * the requests already in flight when it was cut don't cut it again. It stays within {@code ADMISSION_MIN_LIMIT} (default 8)
+ * and {@code ADMISSION_MAX_LIMIT} (default 200), starting at {@code ADMISSION_INITIAL_LIMIT} (default 40).
+ * <p>
+ * Sheddable requests are only admitted below {@code ADMISSION_SHEDDABLE_SHARE} (default 0.75) of the limit, normal
+ * ones below the limit, and critical ones always, see {@link #priorityOf}.
+ * <p>
+ * The limit and requests in flight are gauged in {@code admission.limit} and {@code admission.in_flight}, turned
+ * away requests counted in {@code admission.shed} tagged with their priority.
+ */
+public class AdmissionControl {
+    public enum Priority {
+        CRITICAL, NORMAL, SHEDDABLE
+    }
+
+    public static final AdmissionControl API = new AdmissionControl(
+            intFromEnv("ADMISSION_INITIAL_LIMIT", 40),
+            intFromEnv("ADMISSION_MIN_LIMIT", 8),
+            intFromEnv("ADMISSION_MAX_LIMIT", 200),
+            Double.parseDouble(Optional.ofNullable(System.getenv("ADMISSION_LATENCY_TOLERANCE")).orElse("2")),
+            Double.parseDouble(Optional.ofNullable(System.getenv("ADMISSION_SHEDDABLE_SHARE")).orElse("0.75")),
+            TimeUnit.SECONDS.toNanos(intFromEnv("ADMISSION_BASELINE_SECONDS", 60)));
+
+    private static final double BACKOFF = 0.9;
+    // Below this, latency differences are noise rather than queueing
+    private static final long LATENCY_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    // So a burst of fast failures cuts the limit a few times, not once each
+    private static final long MIN_DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    // Past this many routes the rest share a baseline, requests to unmapped paths end in 404 anyway
+    private static final int MAX_ROUTES = 256;
+    private static final String OTHER_ROUTE = "other";
+
+    private static final ThreadLocal<Boolean> streaming = new ThreadLocal<>();
+
+    private static class Baseline {
+        long nanos = Long.MAX_VALUE;
+        long windowMinNanos = Long.MAX_VALUE;
+        long windowStartedAt;
+
+        Baseline(long now) {
+            windowStartedAt = now;
+        }
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double sheddableShare;
+    private final long baselineWindowNanos;
+
+    private final AtomicInteger inFlight;
+    private final AtomicInteger currentLimit;
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+
+    // Guarded by this
+    private double limit;
+    private final Map<String, Baseline> baselines = new HashMap<>();
+    private long lastDecreaseAt = System.nanoTime();
+
+    public AdmissionControl(int initialLimit, int minLimit, int maxLimit, double tolerance, double sheddableShare,
+                            long baselineWindowNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.sheddableShare = sheddableShare;
+        this.baselineWindowNanos = baselineWindowNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        this.inFlight = Metrics.gauge("admission.in_flight", new AtomicInteger());
+        this.currentLimit = Metrics.gauge("admission.limit", new AtomicInteger((int) limit));
+
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, Metrics.counter("admission.shed", "priority", priority.name().toLowerCase()));
+        }
+    }
+
+    private static int intFromEnv(String name, int defaultValue) {
+        return Integer.parseInt(Optional.ofNullable(System.getenv(name)).orElse(String.valueOf(defaultValue)));
+    }
+
+    /**
+     * @param path the request path below {@code /api/v1}
+     * @return the request's priority, null for the event stream, which stays open and holds no connection
+     */
+    public static Priority priorityOf(String method, String path) {
+        if (path.startsWith("/jobs/stream")) {
+            return null;
+        }
+
+        switch (path) {
+            case "/login":
+            case "/logout":
+            case "/signup":
+            case "/access-token":
+            case "/set-preferences":
+                return Priority.CRITICAL;
+            case "/greeting":
+                return Priority.SHEDDABLE;
+        }
+
+        // Listing refreshes, which clients poll and retry on their own
+        if (method.equals("GET")) {
+            switch (path) {
+                case "/jobs":
+                case "/jobs/batch":
+                case "/jobs-to-rank":
+                case "/companies":
+                case "/allocation-status":
+                case "/stats":
+                    return Priority.SHEDDABLE;
+            }
+        }
+
+        return Priority.NORMAL;
+    }
+
+    public int getLimit() {
+        return currentLimit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return whether the request may run, it must then call {@link #release} once done
+     */
+    public boolean tryAcquire(Priority priority) {
+        if (priority == Priority.CRITICAL) {
+            inFlight.incrementAndGet();
+            return true;
+        }
+
+        int allowed = priority == Priority.NORMAL ? currentLimit.get()
+                : Math.max(1, (int) (currentLimit.get() * sheddableShare));
+
+        while (true) {
+            int running = inFlight.get();
+
+            if (running >= allowed) {
+                shed.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(running, running + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Marks the calling thread's request as streamed, so its latency is left out of the limit.
+     */
+    public static void streamed() {
+        streaming.set(Boolean.TRUE);
+    }
+
+    /**
+     * @return whether the calling thread's request was marked {@link #streamed()}, clearing the mark
+     */
+    public static boolean takeStreamed() {
+        boolean streamed = streaming.get() != null;
+        streaming.remove();
+        return streamed;
+    }
+
+    /**
+     * @param route the request's method and path, null to leave its latency out of the limit
+     * @param latencyNanos how long the request took
+     * @param status the response status, a 5xx counts as congestion whatever its latency
+     */
+    public void release(String route, long latencyNanos, int status) {
+        release(route, latencyNanos, status, System.nanoTime());
+    }
+
+    synchronized void release(String route, long latencyNanos, int status, long now) {
+        int running = inFlight.getAndDecrement();
+
+        if (route == null || (status >= 400 && status < 500)) {
+            return;
+        }
+
+        boolean failed = status >= 500;
+
+        Baseline baseline = baselines.get(route);
+        if (baseline == null) {
+            baseline = baselines.computeIfAbsent(baselines.size() < MAX_ROUTES ? route : OTHER_ROUTE,
+                    key -> new Baseline(now));
+        }
+
+        if (!failed) {
+            if (now - baseline.windowStartedAt > baselineWindowNanos) {
+                // The previous window's fastest becomes the baseline, so it can follow the database back up
+                baseline.nanos = baseline.windowMinNanos;
+                baseline.windowMinNanos = Long.MAX_VALUE;
+                baseline.windowStartedAt = now;
+            }
+            baseline.windowMinNanos = Math.min(baseline.windowMinNanos, latencyNanos);
+            baseline.nanos = Math.min(baseline.nanos, latencyNanos);
+        }
+
+        boolean congested = failed || latencyNanos > (double) baseline.nanos * tolerance + LATENCY_SLACK_NANOS;
+
+        if (congested) {
+            if (now - lastDecreaseAt >= Math.max(latencyNanos, MIN_DECREASE_INTERVAL_NANOS)) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+                lastDecreaseAt = now;
+            }
+        } else if (running * 2 >= limit) {
+            // Only grow while the limit is actually being used
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+
+        currentLimit.set((int) limit);
+    }
+
+    @Override
+    public String toString() {
+        return getInFlight() + " in flight, limit " + getLimit();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.isejobsboard.Utils;
+
+import com.example.isejobsboard.controller.schemas.AllocationStrategy;
+import com.example.isejobsboard.controller.schemas.GreedyAllocationStrategy;
+import com.example.isejobsboard.controller.schemas.InterviewAllocation;
+import com.example.isejobsboard.model.AllocationRun;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs interview allocations in the background so {@code /allocate} can answer straight away.
+ * <p>
+ * Only one run per residency is allowed at a time. Finished runs are kept for
+ * {@code ALLOCATION_RUN_RETENTION_MINUTES} (default 60) so their result can still be read.
+ * Runs that don't ask for a strategy use {@code ALLOCATION_STRATEGY} (default greedy).
+ * Runs share the {@link Bulkhead#ADMIN} bulkhead with admin requests and wait for a permit.
+ */
+public class AllocationRunner {
+    public static final String defaultStrategy = Optional.ofNullable(System.getenv("ALLOCATION_STRATEGY"))
+            .orElse(GreedyAllocationStrategy.NAME);
+
+    private static final long retentionMs = 60_000L * Long.parseLong(
+            Optional.ofNullable(System.getenv("ALLOCATION_RUN_RETENTION_MINUTES")).orElse("60"));
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "interview-allocation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<String, AllocationRun> runs = new ConcurrentHashMap<>();
+    // residency -> the run currently working on it
+    private static final Map<String, AllocationRun> active = new ConcurrentHashMap<>();
+
+    /**
+     * Queues an allocation for the residency.
+     * @return the queued run, or null if the residency already has one queued or running
+     */
+    public static AllocationRun submit(String year, String residency, AllocationStrategy strategy) {
+        AllocationRun run = new AllocationRun(residency, strategy.getName());
+
+        if (active.putIfAbsent(residency, run) != null) {
+            return null;
+        }
+
+        prune();
+        runs.put(run.getId(), run);
+        executor.execute(() -> execute(run, year, strategy));
+
+        return run;
+    }
+
+    /**
+     * Holds the residency for work done on the calling thread, e.g. a backfill, so no allocation runs underneath it.
+     * @return the claim to hand to {@link #release}, or null if the residency is busy
+     */
+    public static AllocationRun claim(String residency, String purpose) {
+        AllocationRun claim = new AllocationRun(residency, purpose);
+
+        return active.putIfAbsent(residency, claim) == null ? claim : null;
+    }
+
+    public static void release(AllocationRun claim) {
+        active.remove(claim.getResidency(), claim);
+    }
+
+    public static AllocationRun get(String id) {
+        return runs.get(id);
+    }
+
+    private static void execute(AllocationRun run, String year, AllocationStrategy strategy) {
+        try {
+            Bulkhead.ADMIN.enter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.fail("Interrupted before it started.");
+            active.remove(run.getResidency(), run);
+            return;
+        }
+
+        try {
+            run.enterPhase(AllocationRun.Status.LOADING);
+            InterviewAllocation allocation = new InterviewAllocation(year, run.getResidency());
+            run.setStudentCount(allocation.getStudentCount());
+            run.setJobCount(allocation.getJobCount());
+
+            run.enterPhase(AllocationRun.Status.ALLOCATING);
+            run.setInterviewsAllocated(allocation.allocate(strategy));
+
+            run.enterPhase(AllocationRun.Status.PERSISTING);
+            allocation.save();
+
+            run.enterPhase(AllocationRun.Status.DONE);
+        } catch (Exception e) {
+            e.printStackTrace();
+            run.fail("An internal server error occurred.");
+        } finally {
+            Bulkhead.ADMIN.exit();
+            active.remove(run.getResidency(), run);
+        }
+    }
+
+    private static void prune() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+
+        runs.values().removeIf(run -> run.isFinished() && run.getFinishedAt() < cutoff);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.isejobsboard.Utils;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Moves closed academic years out of the live job, preference and allocation tables into their archive tables
+ * (see the V3 migration), so the listings and their indexes only carry the current cohorts.
+ * <p>
+ * An academic year is named after the calendar year it starts in and runs from the first of
+ * {@code ACADEMIC_YEAR_START_MONTH} (default 9, September). A job belongs to the year it was posted in.
+ */
+public class ArchiveUtils {
+    private static final int startMonth = Integer.parseInt(
+            Optional.ofNullable(System.getenv("ACADEMIC_YEAR_START_MONTH")).orElse("9"));
+
+    private static final String JOBS_OF_YEAR = "j.post_date >= ? AND j.post_date < ?";
+
+    private static final String ARCHIVE_JOBS_SQL =
+            "INSERT INTO job_archive (job_id, academic_year, company_id, company_name, job_title, description, " +
+            "small_description, salary, residency, residency_title, position_count, approval, post_date) " +
+            "SELECT j.job_id, ?, j.company_id, c.name, j.job_title, j.description, j.small_description, j.salary, " +
+            "j.residency, j.residency_title, j.position_count, j.approval, j.post_date " +
+            "FROM job j LEFT JOIN company c ON j.company_id = c.company_id " +
+            "WHERE " + JOBS_OF_YEAR;
+
+    private static final String ARCHIVE_PREFERENCES_SQL =
+            "INSERT INTO student_preference_archive (academic_year, student_number, job_id, preference) " +
+            "SELECT ?, sp.student_number, sp.job_id, sp.preference " +
+            "FROM student_preference sp JOIN job j ON sp.job_id = j.job_id " +
+            "WHERE " + JOBS_OF_YEAR;
+
+    private static final String ARCHIVE_ALLOCATIONS_SQL =
+            "INSERT INTO interview_allocation_archive (academic_year, student_number, job_id) " +
+            "SELECT ?, ia.student_number, ia.job_id " +
+            "FROM interview_allocation ia JOIN job j ON ia.job_id = j.job_id " +
+            "WHERE " + JOBS_OF_YEAR;
+
+    // Preferences and allocations go with their job through ON DELETE CASCADE
+    private static final String DELETE_JOBS_SQL = "DELETE j FROM job j WHERE " + JOBS_OF_YEAR;
+
+    // Withdrawals only matter to the year's allocation, a student repeating a year starts afresh
+    private static final String DELETE_WITHDRAWALS_SQL =
+            "DELETE FROM allocation_withdrawal WHERE withdrawn_at >= ? AND withdrawn_at < ?";
+
+    public static LocalDateTime yearStart(int academicYear) {
+        return LocalDate.of(academicYear, startMonth, 1).atStartOfDay();
+    }
+
+    /**
+     * @return whether the academic year has ended, only those can be archived
+     */
+    public static boolean isClosed(int academicYear, LocalDateTime now) {
+        return !yearStart(academicYear + 1).isAfter(now);
+    }
+
+    /**
+     * Copies the year's jobs with their preferences and allocations into the archive and deletes them from the live
+     * tables, in the current transaction. Running it again for the same year moves anything posted into it since.
+     * @return how many jobs, preferences and allocations were moved
+     */
+    public static Map<String, Integer> archiveYear(int academicYear) throws SQLException {
+        if (!isClosed(academicYear, LocalDateTime.now())) {
+            throw new IllegalArgumentException("Academic year " + academicYear + " hasn't ended yet.");
+        }
+
+        Timestamp from = Timestamp.valueOf(yearStart(academicYear));
+        Timestamp to = Timestamp.valueOf(yearStart(academicYear + 1));
+
+        Map<String, Integer> moved = new LinkedHashMap<>();
+
+        try (Connection connection = DatabaseUtils.getConnection()) {
+            // Children first, the job delete takes them with it
+            moved.put("preferences", copy(connection, ARCHIVE_PREFERENCES_SQL, academicYear, from, to));
+            moved.put("allocations", copy(connection, ARCHIVE_ALLOCATIONS_SQL, academicYear, from, to));
+            moved.put("jobs", copy(connection, ARCHIVE_JOBS_SQL, academicYear, from, to));
+
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_JOBS_SQL)) {
+                statement.setTimestamp(1, from);
+                statement.setTimestamp(2, to);
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_WITHDRAWALS_SQL)) {
+                statement.setTimestamp(1, from);
+                statement.setTimestamp(2, to);
+                statement.executeUpdate();
+            }
+        }
+
+        if (moved.get("jobs") > 0) {
+            JobUtils.invalidateCaches();
+            DashboardStats.reconcileSoon();
+        }
+
+        return moved;
+    }
+
+    private static int copy(Connection connection, String sql, int academicYear, Timestamp from, Timestamp to) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, academicYear);
+            statement.setTimestamp(2, from);
+            statement.setTimestamp(3, to);
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Deletes expired sessions a batch at a time, so no single statement holds locks on the table for long.
+     * @return how many were deleted
+     */
+    public static int purgeExpiredSessions(int batchSize) throws SQLException {
+        String sql = "DELETE FROM login_sessions WHERE expiry < NOW() LIMIT ?";
+        int purged = 0;
+
+        while (true) {
+            int deleted;
+
+            // Each batch commits on its own, this runs outside any request
+            try (Connection connection = DatabaseUtils.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, batchSize);
+                deleted = statement.executeUpdate();
+            }
+
+            purged += deleted;
+
+            if (deleted < batchSize) {
+                return purged;
+            }
+        }
+    }
+}
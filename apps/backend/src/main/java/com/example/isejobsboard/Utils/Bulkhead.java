@@ -0,0 +1,200 @@
+package com.example.isejobsboard.Utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps how much database work each class of operation can have in flight, so one class can't take every connection
+ * from the others: a heavy allocation or batch of admin work can't starve logins, nor a burst of browsing the writes.
+ * <p>
+ * Each bulkhead has {@code BULKHEAD_<NAME>_PERMITS} permits and gives its statements a query timeout of
+ * {@code DB_TIMEOUT_<NAME>_SECONDS}. Requests wait up to {@code BULKHEAD_WAIT_MS} (default 1000) for a permit,
+ * see {@code config/BulkheadFilter}. Work outside any bulkhead (pollers, reconciles) gets {@code DB_TIMEOUT_SECONDS}
+ * (default 30).
+ * <p>
+ * Permits in use and the limit are gauged in {@code bulkhead.in_use} and {@code bulkhead.limit}, waits timed in
+ * {@code bulkhead.wait} and turned away requests counted in {@code bulkhead.rejections}, all tagged with the bulkhead.
+ */
+public class Bulkhead {
+    private static final int defaultTimeoutSeconds = Integer.parseInt(
+            Optional.ofNullable(System.getenv("DB_TIMEOUT_SECONDS")).orElse("30"));
+    public static final long waitMs = Long.parseLong(
+            Optional.ofNullable(System.getenv("BULKHEAD_WAIT_MS")).orElse("1000"));
+
+    // Login, logout, signup and access tokens
+    public static final Bulkhead AUTH = fromEnv("auth", 16, 3);
+    // Every other read
+    public static final Bulkhead BROWSE = fromEnv("browse", 32, 10);
+    // Every other write
+    public static final Bulkhead WRITE = fromEnv("write", 16, 15);
+    // Allocations, backfills, archiving, bulk moderation, user and history listings, and the admin's full job
+    // listing, which takes it on top of its browse permit once the caller turns out to be an admin
+    public static final Bulkhead ADMIN = fromEnv("admin", 4, 300);
+
+    // Innermost last, a request can take a second bulkhead while it holds its first
+    private static final ThreadLocal<Deque<Bulkhead>> current = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final String name;
+    private final int permits;
+    private final int timeoutSeconds;
+    private final Semaphore semaphore;
+    private final AtomicInteger inUse;
+    // Gauges only hold their number weakly
+    private final AtomicInteger limit;
+    private final Counter rejections;
+    private final Timer waits;
+
+    public Bulkhead(String name, int permits, int timeoutSeconds) {
+        this.name = name;
+        this.permits = permits;
+        this.timeoutSeconds = timeoutSeconds;
+        this.semaphore = new Semaphore(permits, true);
+        this.inUse = Metrics.gauge("bulkhead.in_use", Tags.of("bulkhead", name), new AtomicInteger());
+        this.rejections = Metrics.counter("bulkhead.rejections", "bulkhead", name);
+        this.waits = Metrics.timer("bulkhead.wait", "bulkhead", name);
+
+        this.limit = Metrics.gauge("bulkhead.limit", Tags.of("bulkhead", name), new AtomicInteger(permits));
+    }
+
+    /**
+     * Reads {@code BULKHEAD_<NAME>_PERMITS} and {@code DB_TIMEOUT_<NAME>_SECONDS}.
+     */
+    public static Bulkhead fromEnv(String name, int defaultPermits, int defaultTimeoutSeconds) {
+        String suffix = name.toUpperCase(Locale.ROOT).replace('-', '_');
+
+        return new Bulkhead(name,
+                Integer.parseInt(Optional.ofNullable(System.getenv("BULKHEAD_" + suffix + "_PERMITS")).orElse(String.valueOf(defaultPermits))),
+                Integer.parseInt(Optional.ofNullable(System.getenv("DB_TIMEOUT_" + suffix + "_SECONDS")).orElse(String.valueOf(defaultTimeoutSeconds))));
+    }
+
+    /**
+     * @param path the request path below {@code /api/v1}
+     * @return the bulkhead the request runs in, null for the event stream, which holds no connection while open
+     */
+    public static Bulkhead forRequest(String method, String path) {
+        if (path.startsWith("/jobs/stream")) {
+            return null;
+        }
+
+        switch (path) {
+            case "/login":
+            case "/logout":
+            case "/signup":
+            case "/access-token":
+                return AUTH;
+            case "/allocate":
+            case "/reallocate":
+            case "/get-allocations":
+            case "/archive-year":
+            case "/moderate-jobs":
+            case "/get-users":
+                return ADMIN;
+        }
+
+        if (path.startsWith("/history/")) {
+            return ADMIN;
+        }
+
+        return method.equals("GET") ? BROWSE : WRITE;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public int available() {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     * Takes a permit and makes this the calling thread's bulkhead until {@link #exit()}, on top of any it's in.
+     * @return false, counted as a rejection, if none came free within the wait
+     */
+    public boolean tryEnter(long waitMs) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        boolean acquired = semaphore.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+        waits.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejections.increment();
+            return false;
+        }
+
+        inUse.incrementAndGet();
+        current.get().addLast(this);
+        return true;
+    }
+
+    /**
+     * Takes a permit however long it takes, for background work that has nobody waiting on an answer.
+     */
+    public void enter() throws InterruptedException {
+        long startedAt = System.nanoTime();
+        semaphore.acquire();
+        waits.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        inUse.incrementAndGet();
+        current.get().addLast(this);
+    }
+
+    public void exit() {
+        current.get().removeLastOccurrence(this);
+        inUse.decrementAndGet();
+        semaphore.release();
+    }
+
+    /**
+     * @return the query timeout for statements made on the calling thread
+     */
+    public static int currentTimeoutSeconds() {
+        Bulkhead bulkhead = current.get().peekLast();
+
+        return bulkhead == null ? defaultTimeoutSeconds : bulkhead.timeoutSeconds;
+    }
+
+    /**
+     * Gives every statement made on the connection the query timeout of the bulkhead it's made in.
+     */
+    public static Connection withQueryTimeouts(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+
+                    if (result instanceof Statement statement) {
+                        int timeout = currentTimeoutSeconds();
+                        if (timeout > 0) {
+                            statement.setQueryTimeout(timeout);
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + available() + "/" + permits + " free)";
+    }
+}
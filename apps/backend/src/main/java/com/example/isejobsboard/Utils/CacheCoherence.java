@@ -0,0 +1,153 @@
+package com.example.isejobsboard.Utils;
+
+import java.sql.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the in-process read caches of every backend instance in step, through the database they already share.
+ * <p>
+ * A write bumps its namespace's row in {@code cache_version} in the same transaction as the change. The V1 migration
+ * creates the table, and so does the first poll or bump if migrations are turned off.
+ * Every instance polls that table every {@code CACHE_COHERENCE_POLL_MS} (default 1000) and drops the caches of any
+ * namespace whose version moved. The instance that made the write drops its own as soon as it commits.
+ * <p>
+ * Cached entries are only served while the last successful poll started less than
+ * {@code CACHE_MAX_STALENESS_MS} (default 3000) ago, so if polling stalls the caches fall through to the database
+ * instead of serving data of unknown age. Coherent caches load from the primary, so replica lag doesn't add to it.
+ */
+public class CacheCoherence {
+    public static final String JOBS = "jobs";
+    public static final String COMPANIES = "companies";
+
+    private static final Map<String, String> env = System.getenv();
+    private static final long pollMs = Long.parseLong(
+            Optional.ofNullable(env.get("CACHE_COHERENCE_POLL_MS")).orElse("1000"));
+    public static final long maxStalenessMs = Long.parseLong(
+            Optional.ofNullable(env.get("CACHE_MAX_STALENESS_MS")).orElse("3000"));
+
+    private static final Map<String, List<Runnable>> invalidators = new ConcurrentHashMap<>();
+    private static final Map<String, Long> seenVersions = new ConcurrentHashMap<>();
+
+    private static volatile boolean tableReady = false;
+    private static volatile long lastSyncStartedAt = 0;
+    private static volatile boolean failing = false;
+
+    static {
+        ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-coherence");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        poller.scheduleWithFixedDelay(CacheCoherence::poll, 0, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs the invalidator whenever the namespace changes, here or on another instance.
+     */
+    public static void register(String namespace, Runnable invalidator) {
+        invalidators.computeIfAbsent(namespace, k -> new CopyOnWriteArrayList<>()).add(invalidator);
+    }
+
+    /**
+     * Marks the namespace changed. Call it in the transaction making the change.
+     */
+    public static void bump(String namespace) throws SQLException {
+        ensureTable();
+
+        String sql = "INSERT INTO cache_version (namespace, version) VALUES (?, 1) " +
+                "ON DUPLICATE KEY UPDATE version = version + 1";
+
+        try (Connection connection = DatabaseUtils.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, namespace);
+            statement.executeUpdate();
+        }
+
+        UnitOfWork.afterCommit(() -> invalidate(namespace));
+    }
+
+    /**
+     * Creates {@code cache_version} if it's missing, on a connection of its own: DDL would commit the caller's transaction.
+     */
+    private static void ensureTable() throws SQLException {
+        if (tableReady) {
+            return;
+        }
+
+        try (Connection connection = DatabaseUtils.openConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS cache_version (" +
+                    "namespace VARCHAR(64) NOT NULL PRIMARY KEY, version BIGINT NOT NULL)");
+        }
+
+        tableReady = true;
+    }
+
+    /**
+     * @return whether cached entries may still be served
+     */
+    public static boolean isInSync() {
+        return System.currentTimeMillis() - lastSyncStartedAt < maxStalenessMs;
+    }
+
+    private static void invalidate(String namespace) {
+        for (Runnable invalidator : invalidators.getOrDefault(namespace, List.of())) {
+            invalidator.run();
+        }
+    }
+
+    private static void poll() {
+        // Anything committed before this moment is seen by the query below
+        long startedAt = System.currentTimeMillis();
+        boolean firstSync = lastSyncStartedAt == 0;
+
+        try {
+            ensureTable();
+        } catch (SQLException e) {
+            pollFailed(e);
+            return;
+        }
+
+        try (Connection connection = DatabaseUtils.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT namespace, version FROM cache_version")) {
+            while (rs.next()) {
+                String namespace = rs.getString("namespace");
+                long version = rs.getLong("version");
+                Long seen = seenVersions.put(namespace, version);
+
+                if (!firstSync && (seen == null || seen != version)) {
+                    invalidate(namespace);
+                }
+            }
+
+            // Anything cached before the first sync is of unknown age
+            if (firstSync) {
+                invalidators.keySet().forEach(CacheCoherence::invalidate);
+            }
+
+            lastSyncStartedAt = startedAt;
+            failing = false;
+        } catch (SQLException e) {
+            pollFailed(e);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void pollFailed(SQLException e) {
+        // Only log the first failure in a row, the caches stop serving on their own
+        if (!failing) {
+            System.err.println("Cache coherence poll failed: " + e.getMessage());
+            failing = true;
+        }
+    }
+}
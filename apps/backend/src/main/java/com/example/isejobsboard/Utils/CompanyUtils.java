@@ -1,14 +1,50 @@
 package com.example.isejobsboard.Utils;
 
 import com.example.isejobsboard.model.Company;
+import com.example.isejobsboard.model.CompanyInfo;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import com.example.isejobsboard.Utils.DatabaseUtils;
 
 import javax.xml.crypto.Data;
 
 public class CompanyUtils {
+    private static final ReadCache<String, List<CompanyInfo>> companies = new ReadCache<>("companies", CacheCoherence.COMPANIES);
+
+    /**
+     * @return every company, as listed by {@code /companies}
+     */
+    public static List<CompanyInfo> getCompanies() throws SQLException {
+        return companies.get("all", key -> {
+            String query = "SELECT * FROM company ";
+            List<CompanyInfo> companyList = new ArrayList<>();
+
+            // From the primary, like the job listings, see JobUtils
+            try (Connection con = DatabaseUtils.openConnection();
+                 PreparedStatement statement = con.prepareStatement(query);
+                 ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    companyList.add(CompanyInfo.ROW_MAPPER.mapRow(rs));
+                }
+            }
+
+            // Shared through the cache
+            return Collections.unmodifiableList(companyList);
+        });
+    }
+
+    /**
+     * Call in the transaction changing companies. Job listings carry the company name so those are dropped too.
+     */
+    public static void invalidateCaches() throws SQLException {
+        CacheCoherence.bump(CacheCoherence.COMPANIES);
+        CacheCoherence.bump(CacheCoherence.JOBS);
+    }
+
     public static Company getCompanyInfoFromUserId(int userId) {
         Company company = new Company();
 
@@ -18,7 +54,7 @@ public class CompanyUtils {
                 "INNER JOIN  rep r ON c.company_id = r.Company_id " +
                 "WHERE r.user_id = ?;";
 
-        try (Connection con = DriverManager.getConnection(DatabaseUtils.url, DatabaseUtils.env.get("MYSQL_USER_NAME"), DatabaseUtils.env.get("MYSQL_USER_PASSWORD"));
+        try (Connection con = DatabaseUtils.getConnection();
              PreparedStatement statement = con.prepareStatement(query)) {
 
             statement.setInt(1, userId);
@@ -43,7 +79,7 @@ public class CompanyUtils {
     public static boolean hasJob(int companyId, int jobId) {
         String query = "SELECT 1 FROM job WHERE company_id = ? AND job_id = ?;";
 
-        try (Connection con = DriverManager.getConnection(DatabaseUtils.url, DatabaseUtils.env.get("MYSQL_USER_NAME"), DatabaseUtils.env.get("MYSQL_USER_PASSWORD"));
+        try (Connection con = DatabaseUtils.getConnection();
         PreparedStatement statement = con.prepareStatement(query)) {
             statement.setInt(1, companyId);
             statement.setInt(2, jobId);
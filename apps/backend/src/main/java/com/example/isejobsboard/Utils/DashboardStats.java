@@ -0,0 +1,285 @@
+package com.example.isejobsboard.Utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The counts behind the admin dashboard, kept in memory so {@code /stats} doesn't scan the student and job tables.
+ * <p>
+ * Writes report their change through the hooks below, applied once the request's transaction commits.
+ * Every {@code STATS_RECONCILE_SECONDS} (default 60) the counters are recounted from the primary and replaced,
+ * which also picks up changes made by other instances or by cascades (a deleted company takes its jobs with it).
+ * Changes that commit while a recount runs are logged and replayed onto the new counters, so they're neither lost
+ * nor counted as drift. How far the counters had drifted is added to {@code stats.reconcile.drift}.
+ */
+public class DashboardStats {
+    private static final long reconcileSeconds = Long.parseLong(
+            Optional.ofNullable(System.getenv("STATS_RECONCILE_SECONDS")).orElse("60"));
+
+    private static final Counter drift = Metrics.counter("stats.reconcile.drift");
+    private static final ScheduledExecutorService reconciler;
+
+    // Null until the first reconcile, changes before that are counted by it
+    private static volatile Counters counters = null;
+    // Changes applied while a recount runs, to replay onto its result. Both guarded by the class
+    private static List<Consumer<Counters>> pending = null;
+
+    static {
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        reconciler.scheduleWithFixedDelay(DashboardStats::reconcileQuietly, 0, reconcileSeconds, TimeUnit.SECONDS);
+    }
+
+    static class Counters {
+        final Map<String, LongAdder> students = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> ranked = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> jobs = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> positions = new ConcurrentHashMap<>();
+        final long reconciledAt;
+
+        Counters(long reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+
+        static void add(Map<String, LongAdder> counter, String key, long delta) {
+            if (key != null && delta != 0) {
+                counter.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+            }
+        }
+
+        void jobChanged(JobUtils.JobSummary before, JobUtils.JobSummary after) {
+            if (before != null) {
+                add(jobs, before.approval(), -1);
+                if ("approved".equals(before.approval())) {
+                    add(positions, before.residency(), -before.positionCount());
+                }
+            }
+            if (after != null) {
+                add(jobs, after.approval(), 1);
+                if ("approved".equals(after.approval())) {
+                    add(positions, after.residency(), after.positionCount());
+                }
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Map<String, Long>> byYear = new TreeMap<>();
+            students.forEach((year, count) ->
+                    byYear.computeIfAbsent(year, k -> new LinkedHashMap<>()).put("total", count.sum()));
+            ranked.forEach((year, count) ->
+                    byYear.computeIfAbsent(year, k -> new LinkedHashMap<>()).put("ranked", count.sum()));
+            byYear.values().forEach(counts -> {
+                counts.putIfAbsent("total", 0L);
+                counts.putIfAbsent("ranked", 0L);
+            });
+
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("students", byYear);
+            snapshot.put("jobs", sums(jobs));
+            snapshot.put("positions", sums(positions));
+            snapshot.put("reconciled_at", reconciledAt);
+            return snapshot;
+        }
+
+        long distanceTo(Counters other) {
+            return distance(students, other.students) + distance(ranked, other.ranked)
+                    + distance(jobs, other.jobs) + distance(positions, other.positions);
+        }
+
+        private static Map<String, Long> sums(Map<String, LongAdder> counter) {
+            Map<String, Long> sums = new TreeMap<>();
+            counter.forEach((key, count) -> sums.put(key, count.sum()));
+            return sums;
+        }
+
+        private static long distance(Map<String, LongAdder> a, Map<String, LongAdder> b) {
+            Map<String, Long> difference = new TreeMap<>(sums(a));
+            b.forEach((key, count) -> difference.merge(key, -count.sum(), Long::sum));
+            return difference.values().stream().mapToLong(Math::abs).sum();
+        }
+    }
+
+    /**
+     * Applies a committed change to the counters, and logs it for the recount in progress if there is one.
+     */
+    static synchronized void apply(Consumer<Counters> change) {
+        if (counters != null) {
+            change.accept(counters);
+        }
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    /**
+     * A job was created (before is null), updated or removed (after is null).
+     */
+    public static void jobChanged(JobUtils.JobSummary before, JobUtils.JobSummary after) {
+        UnitOfWork.afterCommit(() -> apply(current -> current.jobChanged(before, after)));
+    }
+
+    public static void studentAdded(int year) {
+        UnitOfWork.afterCommit(() -> apply(current -> Counters.add(current.students, String.valueOf(year), 1)));
+    }
+
+    /**
+     * A student with no preferences submitted some.
+     */
+    public static void studentRanked(String year) {
+        UnitOfWork.afterCommit(() -> apply(current -> Counters.add(current.ranked, year, 1)));
+    }
+
+    /**
+     * Call before deleting the user, in the same transaction, while their student row can still be read.
+     */
+    public static void userDeleting(int userId) throws SQLException {
+        String sql = "SELECT s.year, EXISTS (SELECT 1 FROM student_preference sp " +
+                "WHERE sp.student_number = s.student_number) AS ranked " +
+                "FROM student s WHERE s.user_id = ?";
+
+        try (Connection connection = DatabaseUtils.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, userId);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return;
+                }
+
+                String year = rs.getString("year");
+                boolean ranked = rs.getBoolean("ranked");
+
+                UnitOfWork.afterCommit(() -> apply(current -> {
+                    Counters.add(current.students, year, -1);
+                    Counters.add(current.ranked, year, ranked ? -1 : 0);
+                }));
+            }
+        }
+    }
+
+    /**
+     * For changes that touch too many rows to follow one by one, recounts once the transaction commits.
+     */
+    public static void reconcileSoon() {
+        UnitOfWork.afterCommit(() -> reconciler.execute(DashboardStats::reconcileQuietly));
+    }
+
+    public static Map<String, Object> snapshot() throws SQLException {
+        Counters current = counters;
+
+        if (current == null) {
+            reconcile();
+            current = counters;
+        }
+
+        return current.snapshot();
+    }
+
+    // One recount at a time, the hooks only wait on the class lock while it swaps the counters
+    static final Object reconciling = new Object();
+
+    static void reconcile() throws SQLException {
+        synchronized (reconciling) {
+            recount();
+        }
+    }
+
+    private static void recount() throws SQLException {
+        Counters fresh = new Counters(System.currentTimeMillis());
+
+        String studentSql = "SELECT s.year, COUNT(*) AS total, " +
+                "SUM(EXISTS (SELECT 1 FROM student_preference sp WHERE sp.student_number = s.student_number)) AS ranked " +
+                "FROM student s GROUP BY s.year";
+        String jobSql = "SELECT approval, COUNT(*) AS total FROM job GROUP BY approval";
+        String positionSql = "SELECT residency, SUM(position_count) AS total FROM job " +
+                "WHERE approval = 'approved' GROUP BY residency";
+
+        startLogging();
+
+        // The primary, a lagging replica would undo changes this instance has already counted.
+        // On a connection of its own, one snapshot for all three counts taken right after logging started:
+        // a change committing between the two is both counted and replayed, until the next recount
+        try (Connection connection = DatabaseUtils.openConnection();
+             Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+
+            try (ResultSet rs = statement.executeQuery(studentSql)) {
+                while (rs.next()) {
+                    Counters.add(fresh.students, rs.getString("year"), rs.getLong("total"));
+                    Counters.add(fresh.ranked, rs.getString("year"), rs.getLong("ranked"));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(jobSql)) {
+                while (rs.next()) {
+                    Counters.add(fresh.jobs, rs.getString("approval"), rs.getLong("total"));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery(positionSql)) {
+                while (rs.next()) {
+                    Counters.add(fresh.positions, rs.getString("residency"), rs.getLong("total"));
+                }
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            stopLogging();
+            throw e;
+        }
+
+        swap(fresh);
+    }
+
+    /**
+     * Replays the changes logged since the recount started onto it and makes it the counters.
+     */
+    static synchronized void swap(Counters fresh) {
+        if (pending != null) {
+            pending.forEach(change -> change.accept(fresh));
+            pending = null;
+        }
+
+        if (counters != null) {
+            drift.increment(counters.distanceTo(fresh));
+        }
+        counters = fresh;
+    }
+
+    /**
+     * Starts logging changes for a recount, see {@link #swap}.
+     */
+    static synchronized void startLogging() {
+        pending = new ArrayList<>();
+    }
+
+    private static synchronized void stopLogging() {
+        pending = null;
+    }
+
+    private static void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (SQLException e) {
+            System.err.println("Dashboard stats reconcile failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.isejobsboard.Utils;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
 import java.util.Map;
 import java.util.Optional;
 
@@ -11,9 +14,52 @@ public class DatabaseUtils {
     // Static initializer block: This code runs once when the class is loaded
     static {
         // Attempt to get the database URL from the "DATABASE_URL" environment variable.
-        url = Optional.ofNullable(System.getenv("DATABASE_URL"))
-                .orElse("jdbc:mysql://localhost:3306/jobs_board?allowMultiQueries=true");
+        url = withStatementCache(Optional.ofNullable(System.getenv("DATABASE_URL"))
+                .orElse("jdbc:mysql://localhost:3306/jobs_board?allowMultiQueries=true"));
 
     }
 
+    /**
+     * Turns on Connector/J's per connection prepared statement cache unless the url already configures it,
+     * so a statement prepared twice on one connection is only parsed once.
+     */
+    static String withStatementCache(String jdbcUrl) {
+        if (jdbcUrl.contains("cachePrepStmts")) {
+            return jdbcUrl;
+        }
+
+        return jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") +
+                "cachePrepStmts=true&prepStmtCacheSize=128&prepStmtCacheSqlLimit=2048";
+    }
+
+    /**
+     * Connection to the primary database.
+     * Use this for writes and for anything that has to see a write made moments ago, e.g. session lookups.
+     * Inside a {@link UnitOfWork} this is the request's shared connection.
+     */
+    public static Connection getConnection() throws SQLException {
+        Connection shared = UnitOfWork.sharedConnection();
+
+        return shared != null ? shared : openConnection();
+    }
+
+    static Connection openConnection() throws SQLException {
+        return instrument(DriverManager.getConnection(url, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD")));
+    }
+
+    /**
+     * Query timeouts from the calling thread's {@link Bulkhead}, and flight recorder events while a recording wants them.
+     */
+    static Connection instrument(Connection connection) {
+        return FlightEvents.traced(Bulkhead.withQueryTimeouts(connection));
+    }
+
+    /**
+     * Opens a connection for read only work that can tolerate replica lag.
+     * Goes to a healthy read replica when any are configured, otherwise to the primary.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        return ReplicaRouter.getReadConnection();
+    }
+
 }
@@ -0,0 +1,196 @@
+package com.example.isejobsboard.Utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Java Flight Recorder events for the parts of a request a profiler can't name: token checks, each JDBC statement,
+ * read cache lookups and the interview allocation's phases. They cost next to nothing unless a recording is running,
+ * see {@code config/FlightRecorderEndpoint} to start one.
+ */
+public class FlightEvents {
+    private static final String CATEGORY = "ISE Jobs Board";
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    @Name("isejobsboard.TokenResolution")
+    @Label("Token Resolution")
+    @Category({CATEGORY, "Auth"})
+    public static class TokenResolution extends Event {
+        @Label("Kind")
+        @Description("session for a database session lookup, access for a signed access token")
+        public String kind;
+
+        @Label("Valid")
+        public boolean valid;
+    }
+
+    @Name("isejobsboard.SqlStatement")
+    @Label("SQL Statement")
+    @Category({CATEGORY, "JDBC"})
+    @Description("From execute until the result set is read, closed or the next execute")
+    public static class SqlStatement extends Event {
+        @Label("SQL ID")
+        @Description("Hash of the SQL text, the same for every execution of a statement")
+        public String sqlId;
+
+        @Label("SQL")
+        public String sql;
+
+        @Label("Rows")
+        @Description("Rows read or changed, -1 when unknown")
+        public long rows;
+    }
+
+    @Name("isejobsboard.CacheLookup")
+    @Label("Cache Lookup")
+    @Category({CATEGORY, "Cache"})
+    public static class CacheLookup extends Event {
+        @Label("Cache")
+        public String cache;
+
+        @Label("Result")
+        @Description("hit, executed (this caller loaded it) or coalesced (waited on a load in flight)")
+        public String result;
+    }
+
+    @Name("isejobsboard.AllocationPhase")
+    @Label("Allocation Phase")
+    @Category({CATEGORY, "Allocation"})
+    public static class AllocationPhase extends Event {
+        @Label("Residency")
+        public String residency;
+
+        @Label("Phase")
+        public String phase;
+
+        @Label("Items")
+        @Description("Jobs, students or interviews the phase handled")
+        public int items;
+    }
+
+    private static final EventType sqlStatementType = EventType.getEventType(SqlStatement.class);
+
+    public static AllocationPhase allocationPhase(String residency, String phase) {
+        AllocationPhase event = new AllocationPhase();
+        event.residency = residency;
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Wraps a freshly opened connection so its statements are recorded, while a recording wants them.
+     * Connections live for one request, so a recording started later picks up from the next one.
+     */
+    public static Connection traced(Connection connection) {
+        if (!sqlStatementType.isEnabled()) {
+            return connection;
+        }
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+
+                    if (result instanceof PreparedStatement prepared && method.getName().startsWith("prepare")) {
+                        return statement(prepared, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                        return statement(statement, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object statement(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        // One execution in flight at a time, as JDBC allows
+        SqlStatement[] pending = new SqlStatement[1];
+
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            String name = method.getName();
+
+            if (name.equals("close")) {
+                finish(pending);
+            } else if (name.startsWith("execute")) {
+                finish(pending);
+
+                String sql = preparedSql != null ? preparedSql
+                        : args != null && args.length > 0 && args[0] instanceof String text ? text : "";
+                SqlStatement event = new SqlStatement();
+                event.sqlId = Integer.toHexString(sql.hashCode());
+                event.sql = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) : sql;
+                event.rows = -1;
+                event.begin();
+                pending[0] = event;
+
+                Object result = invoke(statement, method, args);
+
+                if (result instanceof ResultSet resultSet) {
+                    // Rows are counted as they're read, the event ends with the result set
+                    event.rows = 0;
+                    return resultSet(resultSet, pending);
+                }
+                if (result instanceof Integer count) {
+                    event.rows = count;
+                } else if (result instanceof Long count) {
+                    event.rows = count;
+                } else if (result instanceof int[] counts) {
+                    event.rows = 0;
+                    for (int count : counts) {
+                        event.rows += Math.max(count, 0);
+                    }
+                }
+                finish(pending);
+                return result;
+            }
+
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static ResultSet resultSet(ResultSet resultSet, SqlStatement[] pending) {
+        SqlStatement event = pending[0];
+
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(resultSet, method, args);
+
+                    if (method.getName().equals("next")) {
+                        if (Boolean.TRUE.equals(result)) {
+                            event.rows++;
+                        } else if (pending[0] == event) {
+                            finish(pending);
+                        }
+                    } else if (method.getName().equals("close") && pending[0] == event) {
+                        finish(pending);
+                    }
+                    return result;
+                });
+    }
+
+    private static void finish(SqlStatement[] pending) {
+        if (pending[0] != null) {
+            pending[0].commit();
+            pending[0] = null;
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
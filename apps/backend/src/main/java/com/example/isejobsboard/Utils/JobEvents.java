@@ -0,0 +1,192 @@
+package com.example.isejobsboard.Utils;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes job changes to {@code /jobs/stream} subscribers as server-sent events.
+ * <p>
+ * An idle subscriber is just a parked async request, no thread. Events go into a small per-subscriber queue
+ * ({@code SSE_CLIENT_BUFFER}, default 32) drained by a shared pool, and a subscriber whose queue fills up is
+ * disconnected rather than buffered for, the browser reconnects and reloads. A heartbeat comment every
+ * {@code SSE_HEARTBEAT_SECONDS} (default 25) keeps proxies from closing quiet streams and finds dead clients.
+ * Streams end after {@code SSE_TIMEOUT_MS} (default 30 minutes), or when the access token they were opened with expires,
+ * which makes clients reconnect and re-authenticate.
+ */
+public class JobEvents {
+    public static final String CREATED = "created";
+    public static final String APPROVED = "approved";
+    public static final String UPDATED = "updated";
+    public static final String REMOVED = "removed";
+
+    private static final Map<String, String> env = System.getenv();
+    private static final int bufferSize = Integer.parseInt(
+            Optional.ofNullable(env.get("SSE_CLIENT_BUFFER")).orElse("32"));
+    private static final long heartbeatSeconds = Long.parseLong(
+            Optional.ofNullable(env.get("SSE_HEARTBEAT_SECONDS")).orElse("25"));
+    private static final long timeoutMs = Long.parseLong(
+            Optional.ofNullable(env.get("SSE_TIMEOUT_MS")).orElse("1800000"));
+
+    private static final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private static final ExecutorService dispatch = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "sse-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Event HEARTBEAT = new Event(null, null);
+
+    static {
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        heartbeat.scheduleAtFixedRate(() -> subscribers.forEach(subscriber -> subscriber.enqueue(HEARTBEAT)),
+                heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    private record Event(String type, Map<String, Object> data) {}
+
+    private static class Subscriber {
+        final SseEmitter emitter;
+        final String role;
+        // students only see their year's residencies, reps their own company
+        final List<String> residencies;
+        final int companyId;
+
+        final Queue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(long timeoutMs, String role, List<String> residencies, int companyId) {
+            this.emitter = new SseEmitter(timeoutMs);
+            this.role = role;
+            this.residencies = residencies;
+            this.companyId = companyId;
+        }
+
+        void enqueue(Event event) {
+            if (!queue.offer(event)) {
+                // Too far behind to catch up, it will reconnect and reload
+                drop();
+                emitter.complete();
+                return;
+            }
+
+            if (draining.compareAndSet(false, true)) {
+                dispatch.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                Event event;
+                while ((event = queue.poll()) != null) {
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().name(event.type).data(event.data, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop();
+                return;
+            } finally {
+                draining.set(false);
+            }
+
+            // An event can land between the last poll and clearing the flag
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                dispatch.execute(this::drain);
+            }
+        }
+
+        void drop() {
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+
+    /**
+     * @param role student, rep or admin
+     * @param year the student's year, ignored for other roles
+     * @param companyId the rep's company, ignored for other roles
+     * @param expiresAtMs when the caller's credentials run out, epoch milliseconds, the stream ends then at the latest
+     */
+    public static SseEmitter subscribe(String role, String year, int companyId, long expiresAtMs) {
+        long timeout = Math.max(1, Math.min(timeoutMs, expiresAtMs - System.currentTimeMillis()));
+        Subscriber subscriber = new Subscriber(timeout, role,
+                role.equals("student") ? ResidencyUtils.forYear(year) : List.of(), companyId);
+
+        subscriber.emitter.onCompletion(subscriber::drop);
+        subscriber.emitter.onTimeout(subscriber::drop);
+        subscriber.emitter.onError(e -> subscriber.drop());
+        subscribers.add(subscriber);
+
+        return subscriber.emitter;
+    }
+
+    public static int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Sends a change to every subscriber allowed to see the job, once the current unit of work commits.
+     * @param job the job as it is after the change, or before it for a removal
+     */
+    public static void publish(String type, JobUtils.JobSummary job) {
+        if (job == null) {
+            return;
+        }
+
+        UnitOfWork.afterCommit(() -> {
+            for (Subscriber subscriber : subscribers) {
+                String visibleAs = visibleAs(type, job, subscriber);
+
+                if (visibleAs != null) {
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("job_id", job.jobId());
+                    data.put("residency", job.residency());
+                    data.put("approval", job.approval());
+
+                    subscriber.enqueue(new Event(visibleAs, data));
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the event type the subscriber should get, null if the change is none of their business
+     */
+    private static String visibleAs(String type, JobUtils.JobSummary job, Subscriber subscriber) {
+        switch (subscriber.role) {
+            case "admin":
+                return type;
+            case "rep":
+                return job.companyId() == subscriber.companyId ? type : null;
+            case "student":
+                if (!subscriber.residencies.contains(job.residency())) {
+                    return null;
+                }
+                if (type.equals(REMOVED) || "approved".equals(job.approval())) {
+                    return type;
+                }
+                // Students only ever saw it while it was approved, for them it's gone
+                return type.equals(UPDATED) ? REMOVED : null;
+            default:
+                return null;
+        }
+    }
+}
@@ -1,6 +1,151 @@
 package com.example.isejobsboard.Utils;
 
+import com.example.isejobsboard.controller.schemas.JobToRank;
+import com.example.isejobsboard.model.SmallJob;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class JobUtils {
+    // %s is replaced with one placeholder per residency
+    static final String APPROVED_JOBS_SQL =
+            "SELECT j.job_title, j.job_id, " +
+            "j.salary, j.small_description, j.residency, c.name, j.post_date, j.position_count " +
+            "FROM job j " +
+            "INNER JOIN company c " +
+            "ON j.company_id = c.company_id " +
+            "WHERE j.residency IN (%s) " +
+            "AND j.approval = 'approved'";
+
+    private static final String JOBS_TO_RANK_SQL =
+            "SELECT j.job_title, j.job_id, c.name " +
+            "FROM job j " +
+            "INNER JOIN company c " +
+            "ON j.company_id = c.company_id " +
+            "WHERE j.residency IN (%s) " +
+            "AND j.approval = 'approved'";
+
+    private static final RowMapper<SmallJob> SMALL_JOB = rs -> new SmallJob((long) rs.getInt("job_id"),
+            rs.getString("job_title"), rs.getString("name"), rs.getString("small_description"),
+            rs.getFloat("salary"), rs.getString("residency"),
+            rs.getTimestamp("post_date"), rs.getInt("position_count"));
+
+    private static final RowMapper<JobToRank> JOB_TO_RANK = rs -> new JobToRank(rs.getString("job_title"),
+            (long) rs.getInt("job_id"), rs.getString("name"));
+
+    private static final ReadCache<List<String>, List<SmallJob>> approvedJobs = new ReadCache<>("approved-jobs", CacheCoherence.JOBS);
+    private static final ReadCache<List<String>, List<JobToRank>> jobsToRank = new ReadCache<>("jobs-to-rank", CacheCoherence.JOBS);
+
+    /**
+     * The fields needed to tell who can see a job, see {@link JobEvents}, and to count it, see {@link DashboardStats}.
+     */
+    public record JobSummary(long jobId, String residency, int companyId, String approval, int positionCount) {}
+
+    /**
+     * Reads from the primary so a handler sees its own uncommitted change.
+     * @return null if the job doesn't exist
+     */
+    public static JobSummary getJobSummary(long jobId) throws SQLException {
+        String sql = "SELECT job_id, residency, company_id, approval, position_count FROM job WHERE job_id = ?";
+
+        try (Connection connection = DatabaseUtils.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, jobId);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new JobSummary(rs.getLong("job_id"), rs.getString("residency"),
+                        rs.getInt("company_id"), rs.getString("approval"), rs.getInt("position_count"));
+            }
+        }
+    }
+
+    /**
+     * Moves every job to the approval state with one locking read and one update, in the current transaction.
+     * The listings are invalidated once for the whole list, and only if something changed.
+     * @param approval "approved", "rejected" or "pending"
+     * @return each id in the order given, mapped to the new state, "unchanged" if it was already in it or "not_found"
+     */
+    public static Map<Long, String> setApproval(Collection<Long> jobIds, String approval) throws SQLException {
+        Map<Long, String> outcomes = new LinkedHashMap<>();
+
+        if (jobIds.isEmpty()) {
+            return outcomes;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(jobIds.size(), "?"));
+        Map<Long, JobSummary> before = new HashMap<>();
+        List<Long> changed = new ArrayList<>();
+
+        try (Connection connection = DatabaseUtils.getConnection()) {
+            // Locked so a concurrent moderation of the same jobs can't interleave with this one
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT job_id, residency, company_id, approval, position_count FROM job " +
+                    "WHERE job_id IN (" + placeholders + ") FOR UPDATE")) {
+                int i = 1;
+                for (long jobId : jobIds) {
+                    statement.setLong(i++, jobId);
+                }
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        before.put(rs.getLong("job_id"), new JobSummary(rs.getLong("job_id"), rs.getString("residency"),
+                                rs.getInt("company_id"), rs.getString("approval"), rs.getInt("position_count")));
+                    }
+                }
+            }
+
+            for (long jobId : jobIds) {
+                JobSummary job = before.get(jobId);
+
+                if (job == null) {
+                    outcomes.put(jobId, "not_found");
+                } else if (approval.equals(job.approval())) {
+                    outcomes.put(jobId, "unchanged");
+                } else {
+                    outcomes.put(jobId, approval);
+                    changed.add(jobId);
+                }
+            }
+
+            if (changed.isEmpty()) {
+                return outcomes;
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE job SET approval = ? WHERE job_id IN (" +
+                    String.join(", ", Collections.nCopies(changed.size(), "?")) + ")")) {
+                statement.setString(1, approval);
+                int i = 2;
+                for (long jobId : changed) {
+                    statement.setLong(i++, jobId);
+                }
+
+                statement.executeUpdate();
+            }
+        }
+
+        invalidateCaches();
+
+        for (long jobId : changed) {
+            JobSummary old = before.get(jobId);
+            JobSummary now = new JobSummary(jobId, old.residency(), old.companyId(), approval, old.positionCount());
+
+            JobEvents.publish("approved".equals(approval) ? JobEvents.APPROVED : JobEvents.UPDATED, now);
+            DashboardStats.jobChanged(old, now);
+        }
+
+        return outcomes;
+    }
+
     public static String getJobStatus(int status) {
         switch (status) {
             case 0:
@@ -11,4 +156,58 @@ public class JobUtils {
                 return "pending";
         }
     }
+
+    /**
+     * @param residencies e.g. {@link ResidencyUtils#forYear(String)}
+     * @return the approved jobs of those residencies as students browse them
+     */
+    public static List<SmallJob> getApprovedJobs(List<String> residencies) throws SQLException {
+        return approvedJobs.get(residencies, key -> queryByResidency(APPROVED_JOBS_SQL, key, SMALL_JOB));
+    }
+
+    /**
+     * @param residencies e.g. {@link ResidencyUtils#rankedWith(String)}
+     * @return the approved jobs of those residencies as students rank them
+     */
+    public static List<JobToRank> getJobsToRank(List<String> residencies) throws SQLException {
+        return jobsToRank.get(residencies, key -> queryByResidency(JOBS_TO_RANK_SQL, key, JOB_TO_RANK));
+    }
+
+    /**
+     * Call in the transaction changing jobs. Every instance drops its cached listings once the change commits.
+     */
+    public static void invalidateCaches() throws SQLException {
+        CacheCoherence.bump(CacheCoherence.JOBS);
+    }
+
+    /**
+     * Runs one of the residency filtered job queries for the caches, on a connection of its own to the primary:
+     * a replica could still be behind the change that emptied the cache, and the request's transaction could roll back.
+     * Binding the residencies as an IN list lets MySQL range scan the residency index.
+     */
+    private static <T> List<T> queryByResidency(String sqlTemplate, List<String> residencies, RowMapper<T> mapper) throws SQLException {
+        List<T> jobs = new ArrayList<>();
+
+        if (residencies.isEmpty()) {
+            return jobs;
+        }
+
+        String sql = String.format(sqlTemplate, String.join(", ", Collections.nCopies(residencies.size(), "?")));
+
+        try (Connection connection = DatabaseUtils.openConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < residencies.size(); i++) {
+                statement.setString(i + 1, residencies.get(i));
+            }
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    jobs.add(mapper.mapRow(rs));
+                }
+            }
+        }
+
+        // Shared through the cache
+        return Collections.unmodifiableList(jobs);
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.isejobsboard.Utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.sql.*;
+
+/**
+ * Writes query results to the response as a JSON array one row at a time, for lists that can be large.
+ * <p>
+ * Statements from {@link #prepare} make Connector/J stream rows off the socket instead of reading the whole result
+ * first, so a request holds one row at a time whatever the table size, and the first bytes leave as soon as
+ * the response buffer fills. The output is the same as returning the list from the handler.
+ */
+public class JsonStreams {
+
+    /**
+     * Prepares a forward only, read only statement that streams its result.
+     * The connection can't run anything else until the result is closed.
+     */
+    public static PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(Integer.MIN_VALUE);
+
+        return statement;
+    }
+
+    /**
+     * Runs the statement and writes every row as a 200 response. The handler should then return null.
+     * <p>
+     * A failure before anything reached the client is rethrown with the response reset, so the handler can still
+     * answer with an error. After that the status is gone, so the response is abandoned half written
+     * and the client sees a broken body rather than a short list.
+     */
+    public static void writeArray(HttpServletResponse response, ObjectMapper objectMapper,
+                                  PreparedStatement statement, RowMapper<?> rowMapper) throws SQLException, IOException {
+        // One flush per row would send one chunk per row
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // Takes as long as the list is, which says nothing about load
+        AdmissionControl.streamed();
+
+        try (ResultSet rs = statement.executeQuery()) {
+            response.setStatus(200);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            try {
+                generator.writeStartArray();
+                while (rs.next()) {
+                    writer.writeValue(generator, rowMapper.mapRow(rs));
+                }
+                generator.writeEndArray();
+            } catch (SQLException e) {
+                if (response.isCommitted()) {
+                    throw new IllegalStateException("Query failed after the response started", e);
+                }
+
+                response.resetBuffer();
+                throw e;
+            }
+
+            generator.close();
+        }
+    }
+}
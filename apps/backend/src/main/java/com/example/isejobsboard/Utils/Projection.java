@@ -0,0 +1,115 @@
+package com.example.isejobsboard.Utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * The fields a list or record response can be trimmed to with {@code fields=}, and the column behind each.
+ * <p>
+ * Only whitelisted names are accepted, so the column expressions here are the only thing that reaches the SQL.
+ * A trimmed response selects just the requested columns and is sent as an object holding just those fields,
+ * in the order they're declared here. Without {@code fields} endpoints send their usual full response.
+ */
+public class Projection {
+
+    @FunctionalInterface
+    public interface Reader {
+        Object read(ResultSet rs, String columnLabel) throws SQLException;
+    }
+
+    /**
+     * @param name   the JSON property, also used as the column alias
+     * @param column the SQL expression for it, in terms of the endpoint query's table aliases
+     */
+    public record Field(String name, String column, Reader reader) {}
+
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+
+    public Projection(Field... fields) {
+        for (Field field : fields) {
+            this.fields.put(field.name(), field);
+        }
+    }
+
+    /**
+     * @param requested the comma separated {@code fields} parameter
+     * @return the requested fields in declaration order, or null if the parameter asks for everything
+     * @throws IllegalArgumentException naming the first field that doesn't exist
+     */
+    public List<Field> select(String requested) {
+        if (requested == null || requested.isBlank()) {
+            return null;
+        }
+
+        Set<String> names = new HashSet<>();
+        for (String name : requested.split(",")) {
+            name = name.trim();
+
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!fields.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            names.add(name);
+        }
+
+        List<Field> selected = new ArrayList<>();
+        for (Field field : fields.values()) {
+            if (names.contains(field.name())) {
+                selected.add(field);
+            }
+        }
+
+        return selected.isEmpty() ? null : selected;
+    }
+
+    /**
+     * @return the SELECT list for the fields
+     */
+    public static String columns(List<Field> selected) {
+        StringJoiner columns = new StringJoiner(", ");
+
+        for (Field field : selected) {
+            columns.add(field.column() + " AS " + field.name());
+        }
+
+        return columns.toString();
+    }
+
+    public static RowMapper<Map<String, Object>> mapper(List<Field> selected) {
+        return rs -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+
+            for (Field field : selected) {
+                row.put(field.name(), field.reader().read(rs, field.name()));
+            }
+
+            return row;
+        };
+    }
+
+    /**
+     * Trims objects that are already loaded, e.g. from a cache, to the fields as they'd serialize.
+     */
+    public static List<Map<String, JsonNode>> trim(ObjectMapper objectMapper, List<?> values, List<Field> selected) {
+        List<Map<String, JsonNode>> trimmed = new ArrayList<>(values.size());
+
+        for (Object value : values) {
+            JsonNode node = objectMapper.valueToTree(value);
+            Map<String, JsonNode> row = new LinkedHashMap<>();
+
+            for (Field field : selected) {
+                row.put(field.name(), node.get(field.name()));
+            }
+
+            trimmed.add(row);
+        }
+
+        return trimmed;
+    }
+}
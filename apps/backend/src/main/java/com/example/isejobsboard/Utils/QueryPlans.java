@@ -0,0 +1,119 @@
+package com.example.isejobsboard.Utils;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that the hot queries are served by an index, by running EXPLAIN on each against the primary.
+ * <p>
+ * The queries mirror the ones in the controllers and schema classes, with representative parameters.
+ * A query whose plan reads any table in full ({@code type} ALL, or index for a full index scan) is reported.
+ * Run it against a database with realistic data, on near empty tables MySQL may prefer a scan regardless.
+ */
+public class QueryPlans {
+    record HotQuery(String name, String sql, Object... params) {}
+
+    record PlanRow(String table, String type, String key) {}
+
+    private static final byte[] SAMPLE_TOKEN = new byte[32];
+
+    static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("session lookup (Authenticator)",
+                    "SELECT user_id FROM login_sessions WHERE token = ?", SAMPLE_TOKEN),
+            new HotQuery("user by session (/profile)",
+                    "SELECT u.user_id, u.first_name, u.last_name, u.email " +
+                    "FROM users u JOIN login_sessions ls ON u.user_id = ls.user_id " +
+                    "WHERE ls.token = ? AND ls.expiry > NOW()", SAMPLE_TOKEN),
+            new HotQuery("student year by session (Student)",
+                    "SELECT s.year FROM student s JOIN login_sessions ls ON s.user_id = ls.user_id " +
+                    "WHERE ls.token = ? AND ls.expiry > NOW()", SAMPLE_TOKEN),
+            new HotQuery("user by email (/login)",
+                    "SELECT * FROM users WHERE email = ?", "someone@example.com"),
+            new HotQuery("access level (Authenticator)",
+                    "SELECT 'admins' AS table_name FROM admins WHERE user_id = ? " +
+                    "UNION SELECT 'students' AS table_name FROM student WHERE user_id = ? " +
+                    "UNION SELECT 'rep' AS table_name FROM rep WHERE user_id = ?", 1, 1, 1),
+            new HotQuery("approved jobs of residencies (JobUtils)",
+                    String.format(JobUtils.APPROVED_JOBS_SQL, "?, ?"), "r1", "r1+r2"),
+            new HotQuery("company of a rep (CompanyUtils)",
+                    "SELECT c.* FROM company c INNER JOIN rep r ON c.company_id = r.company_id WHERE r.user_id = ?", 1),
+            new HotQuery("jobs of a company (/jobs)",
+                    "SELECT j.job_title, j.job_id, j.approval, c.name FROM job j " +
+                    "INNER JOIN company c ON j.company_id = c.company_id WHERE j.company_id = ?", 1),
+            new HotQuery("job details by id list (/jobs/batch)",
+                    "SELECT j.job_id, j.job_title, c.name FROM job j " +
+                    "INNER JOIN company c ON j.company_id = c.company_id WHERE j.job_id IN (?, ?, ?)", 1, 2, 3),
+            new HotQuery("students of a year (InterviewAllocation)",
+                    "SELECT student_number, class_rank FROM student WHERE year = ?", 1),
+            new HotQuery("jobs of a residency (Job)",
+                    "SELECT job_id, company_id, position_count FROM job WHERE residency = ? AND approval = 'approved'", "r1"),
+            new HotQuery("preferences of a student (Student)",
+                    "SELECT job_id, preference FROM student_preference WHERE student_number = ? ORDER BY preference ASC", 1),
+            new HotQuery("students who ranked a job (InterviewBackfill)",
+                    "SELECT sp.student_number FROM student_preference sp " +
+                    "JOIN student s ON sp.student_number = s.student_number WHERE sp.job_id = ? AND s.year = ?", 1, 1),
+            new HotQuery("interviews held on a job (InterviewBackfill)",
+                    "SELECT COUNT(*) FROM interview_allocation ia WHERE ia.job_id = ?", 1),
+            new HotQuery("jobs of an academic year (ArchiveUtils)",
+                    "SELECT j.job_id FROM job j WHERE j.post_date >= ? AND j.post_date < ?",
+                    "2024-09-01 00:00:00", "2025-09-01 00:00:00"),
+            new HotQuery("archived jobs of a year (/history/jobs)",
+                    "SELECT job_id, job_title FROM job_archive WHERE academic_year = ?", 2024),
+            new HotQuery("clear a residency's allocation (InterviewAllocation)",
+                    "DELETE ap FROM interview_allocation ap INNER JOIN job j ON ap.job_id = j.job_id WHERE j.residency = ?", "r1")
+    );
+
+    /**
+     * @return one line per hot query that scans a table, empty if every one uses an index
+     */
+    public static List<String> verify() throws SQLException {
+        List<String> problems = new ArrayList<>();
+
+        try (Connection connection = DatabaseUtils.openConnection()) {
+            for (HotQuery query : HOT_QUERIES) {
+                problems.addAll(problems(query.name(), explain(connection, query)));
+            }
+        }
+
+        return problems;
+    }
+
+    static List<String> problems(String name, List<PlanRow> plan) {
+        List<String> problems = new ArrayList<>();
+
+        for (PlanRow row : plan) {
+            // Rows without a table are const lookups or an impossible WHERE, nothing is read.
+            // <union..> and <derived..> are temporary results, their inputs have rows of their own
+            if (row.table() == null || row.table().startsWith("<")) {
+                continue;
+            }
+
+            if ("ALL".equals(row.type())) {
+                problems.add(name + ": full scan of " + row.table());
+            } else if ("index".equals(row.type())) {
+                problems.add(name + ": full index scan of " + row.table() + " on " + row.key());
+            }
+        }
+
+        return problems;
+    }
+
+    private static List<PlanRow> explain(Connection connection, HotQuery query) throws SQLException {
+        List<PlanRow> plan = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (int i = 0; i < query.params().length; i++) {
+                statement.setObject(i + 1, query.params()[i]);
+            }
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(new PlanRow(rs.getString("table"), rs.getString("type"), rs.getString("key")));
+                }
+            }
+        }
+
+        return plan;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.isejobsboard.Utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short lived cache in front of a read query, with single-flight loading.
+ * <p>
+ * On a miss the first caller runs the query and every concurrent caller for the same key waits for its result,
+ * so a burst of requests right after an invalidation costs one query rather than one each.
+ * Entries live for {@code READ_CACHE_TTL_MS} (default 30000) or until {@link #invalidateAll()}.
+ * <p>
+ * Loads are counted in {@code read.cache.loads} tagged with the cache name and whether the caller
+ * executed the query or was coalesced onto one in flight, hits in {@code read.cache.hits}.
+ * Cached values are shared between requests so they must not be modified.
+ * <p>
+ * A cache given a {@link CacheCoherence} namespace is invalidated when any instance changes that namespace,
+ * and only serves entries while the instance is in sync with the others.
+ * Every lookup is also recorded as a {@link FlightEvents.CacheLookup} while a flight recording is running.
+ */
+public class ReadCache<K, V> {
+    static final long defaultTtlMs = Long.parseLong(
+            Optional.ofNullable(System.getenv("READ_CACHE_TTL_MS")).orElse("30000"));
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private record Cached<V>(V value, long expiresAt, long generation) {}
+
+    private final String name;
+    private final long ttlMs;
+    private final boolean coherent;
+    private final Map<K, Cached<V>> values = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, a load that started before one must not store its result
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter executed;
+    private final Counter coalesced;
+
+    /**
+     * @param namespace the {@link CacheCoherence} namespace whose changes invalidate this cache
+     */
+    public ReadCache(String name, String namespace) {
+        this(name, defaultTtlMs, namespace);
+    }
+
+    public ReadCache(String name, long ttlMs) {
+        this(name, ttlMs, null);
+    }
+
+    public ReadCache(String name, long ttlMs, String namespace) {
+        this.name = name;
+        this.ttlMs = ttlMs;
+        this.coherent = namespace != null;
+        this.hits = Metrics.counter("read.cache.hits", "cache", name);
+        this.executed = Metrics.counter("read.cache.loads", "cache", name, "result", "executed");
+        this.coalesced = Metrics.counter("read.cache.loads", "cache", name, "result", "coalesced");
+
+        if (coherent) {
+            CacheCoherence.register(namespace, this::invalidateAll);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        FlightEvents.CacheLookup event = new FlightEvents.CacheLookup();
+        event.cache = name;
+        event.begin();
+
+        try {
+            return get(key, loader, event);
+        } finally {
+            event.commit();
+        }
+    }
+
+    private V get(K key, Loader<K, V> loader, FlightEvents.CacheLookup event) throws SQLException {
+        Cached<V> cached = values.get(key);
+
+        if (cached != null && cached.expiresAt > System.currentTimeMillis() && cached.generation == generation.get()
+                && (!coherent || CacheCoherence.isInSync())) {
+            hits.increment();
+            event.result = "hit";
+            return cached.value;
+        }
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, load);
+
+        if (running != null) {
+            coalesced.increment();
+            event.result = "coalesced";
+            return await(running);
+        }
+
+        executed.increment();
+        event.result = "executed";
+        long startedIn = generation.get();
+
+        try {
+            V value = loader.load(key);
+
+            if (startedIn == generation.get()) {
+                values.put(key, new Cached<>(value, System.currentTimeMillis() + ttlMs, startedIn));
+            }
+
+            load.complete(value);
+            return value;
+        } catch (SQLException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Drops every entry. Loads already running finish for their own callers but aren't cached or joined by new ones.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        values.clear();
+        inFlight.clear();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) throws SQLException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
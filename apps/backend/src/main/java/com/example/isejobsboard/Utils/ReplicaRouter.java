@@ -0,0 +1,126 @@
+package com.example.isejobsboard.Utils;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read only connections across MySQL read replicas.
+ * <p>
+ * Replicas come from {@code DATABASE_REPLICA_URLS} (comma separated JDBC urls, same credentials as the primary).
+ * A background check polls each replica's replication lag every {@code DATABASE_REPLICA_CHECK_INTERVAL_MS}
+ * and only replicas within {@code DATABASE_REPLICA_MAX_LAG_SECONDS} get traffic, so a read can be at most
+ * lag tolerance plus one check interval behind the primary. When no replica is usable, reads go to the primary.
+ */
+public class ReplicaRouter {
+    private static final Map<String, String> env = DatabaseUtils.env;
+
+    private static final long maxLagSeconds = Long.parseLong(
+            Optional.ofNullable(env.get("DATABASE_REPLICA_MAX_LAG_SECONDS")).orElse("5"));
+    private static final long checkIntervalMs = Long.parseLong(
+            Optional.ofNullable(env.get("DATABASE_REPLICA_CHECK_INTERVAL_MS")).orElse("2000"));
+
+    private static final List<Replica> replicas = new ArrayList<>();
+    private static final AtomicInteger next = new AtomicInteger();
+
+    static {
+        for (String replicaUrl : Optional.ofNullable(env.get("DATABASE_REPLICA_URLS")).orElse("").split(",")) {
+            if (!replicaUrl.isBlank()) {
+                replicas.add(new Replica(DatabaseUtils.withStatementCache(replicaUrl.trim())));
+            }
+        }
+
+        if (!replicas.isEmpty()) {
+            ScheduledExecutorService healthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            healthCheck.scheduleWithFixedDelay(() -> replicas.forEach(ReplicaRouter::check),
+                    0, checkIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static class Replica {
+        final String url;
+        // Replicas start out of rotation until the first check has seen them
+        volatile boolean healthy = false;
+
+        Replica(String url) {
+            this.url = url;
+        }
+    }
+
+    /**
+     * Hands out replicas round robin, skipping unhealthy ones and failing over to the primary.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        int count = replicas.size();
+        int start = count == 0 ? 0 : Math.floorMod(next.getAndIncrement(), count);
+
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+
+            if (!replica.healthy) {
+                continue;
+            }
+
+            try {
+                return DatabaseUtils.instrument(
+                        DriverManager.getConnection(replica.url, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD")));
+            } catch (SQLException e) {
+                // Take it out of rotation until the health check sees it again
+                replica.healthy = false;
+                System.err.println("Read replica unavailable, failing over: " + e.getMessage());
+            }
+        }
+
+        return DatabaseUtils.getConnection();
+    }
+
+    private static void check(Replica replica) {
+        try (Connection connection = DriverManager.getConnection(replica.url,
+                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"))) {
+            Long lag = replicationLag(connection);
+
+            // A null lag means replication is stopped or broken
+            replica.healthy = lag != null && lag <= maxLagSeconds;
+        } catch (SQLException e) {
+            replica.healthy = false;
+        }
+    }
+
+    /**
+     * @return seconds behind the source, null if replication is down or the server isn't a replica at all
+     */
+    private static Long replicationLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                return replicationLag(rs, "Seconds_Behind_Source");
+            } catch (SQLSyntaxErrorException e) {
+                // MySQL before 8.0.22 only knows the old names
+                try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                    return replicationLag(rs, "Seconds_Behind_Master");
+                }
+            }
+        }
+    }
+
+    private static Long replicationLag(ResultSet rs, String lagColumn) throws SQLException {
+        // No status row: replication was reset, or the url points at a standalone server
+        if (!rs.next()) {
+            return null;
+        }
+
+        long lag = rs.getLong(lagColumn);
+
+        return rs.wasNull() ? null : lag;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.isejobsboard.Utils;
+
+import java.util.List;
+
+/**
+ * Which residencies belong to which student year.
+ */
+public class ResidencyUtils {
+
+    /**
+     * @param year the student's year, "1" to "4"
+     * @return every residency a student of that year can see, empty for an unknown year
+     */
+    public static List<String> forYear(String year) {
+        if (year == null) {
+            return List.of();
+        }
+
+        switch (year) {
+            case "1":
+                return List.of("r1", "r2", "r1+r2");
+            case "2":
+                return List.of("r3");
+            case "3":
+                return List.of("r4");
+            case "4":
+                return List.of("r5");
+            default:
+                return List.of();
+        }
+    }
+
+    /**
+     * @param residency a residency as students rank it, "r1" to "r5"
+     * @return the job residencies that are ranked and allocated under it, empty for an unknown residency
+     */
+    public static List<String> rankedWith(String residency) {
+        if (residency == null) {
+            return List.of();
+        }
+
+        switch (residency) {
+            case "r1":
+                // jobs spanning both first year residencies are ranked with r1
+                return List.of("r1", "r1+r2");
+            case "r2":
+            case "r3":
+            case "r4":
+            case "r5":
+                return List.of(residency);
+            default:
+                return List.of();
+        }
+    }
+
+    /**
+     * @param residency a residency as students rank it, "r1" to "r5"
+     * @return the student year it belongs to, null for an unknown residency
+     */
+    public static String yearOf(String residency) {
+        if (residency == null) {
+            return null;
+        }
+
+        switch (residency) {
+            case "r1":
+            case "r2":
+                return "1";
+            case "r3":
+                return "2";
+            case "r4":
+                return "3";
+            case "r5":
+                return "4";
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.isejobsboard.Utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One connection and transaction shared by everything a request does on its thread.
+ * <p>
+ * While a unit of work is open, {@link DatabaseUtils#getConnection()} hands out the same connection every time,
+ * opened on first use with auto commit off. The helpers can keep using try-with-resources and calling
+ * commit/rollback themselves, on the shared connection those are no-ops and {@link #end(boolean)} decides.
+ * Read replica connections are never shared.
+ */
+public class UnitOfWork {
+    private static final ThreadLocal<UnitOfWork> current = new ThreadLocal<>();
+
+    private Connection connection;
+    private Connection shared;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+
+    public static void begin() {
+        if (current.get() != null) {
+            throw new IllegalStateException("A unit of work is already open on this thread.");
+        }
+        current.set(new UnitOfWork());
+    }
+
+    public static boolean isActive() {
+        return current.get() != null;
+    }
+
+    /**
+     * Runs the callback once the current unit of work commits, or straight away if there isn't one.
+     * Dropped if the unit of work rolls back. Use it for anything that must not see uncommitted data, e.g. caches.
+     */
+    public static void afterCommit(Runnable callback) {
+        UnitOfWork unit = current.get();
+
+        if (unit == null) {
+            callback.run();
+        } else {
+            unit.afterCommit.add(callback);
+        }
+    }
+
+    /**
+     * Commits or rolls back and closes the connection, if one was ever opened.
+     */
+    public static void end(boolean commit) throws SQLException {
+        UnitOfWork unit = current.get();
+        current.remove();
+
+        if (unit == null) {
+            return;
+        }
+
+        if (unit.connection != null) {
+            try (Connection connection = unit.connection) {
+                if (commit) {
+                    connection.commit();
+                } else {
+                    connection.rollback();
+                }
+            }
+        }
+
+        if (commit) {
+            for (Runnable callback : unit.afterCommit) {
+                try {
+                    callback.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the unit of work's connection, or null when none is open on this thread
+     */
+    static Connection sharedConnection() throws SQLException {
+        UnitOfWork unit = current.get();
+
+        if (unit == null) {
+            return null;
+        }
+
+        if (unit.connection == null) {
+            unit.connection = DatabaseUtils.openConnection();
+            unit.connection.setAutoCommit(false);
+            unit.shared = share(unit.connection);
+        }
+        return unit.shared;
+    }
+
+    private static Connection share(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                        case "commit":
+                        case "setAutoCommit":
+                            return null;
+                        case "rollback":
+                            // rolling back to a savepoint is still the caller's business
+                            if (args == null) {
+                                return null;
+                            }
+                            break;
+                    }
+
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -13,7 +13,7 @@ public class UserUtils {
                 "SET @last_id = LAST_INSERT_ID(); " +
                 "INSERT INTO student (student_number, class_rank, user_id, year) VALUES (?, ?, @last_id, ?);";
 
-        try (Connection con = DriverManager.getConnection(DatabaseUtils.url, DatabaseUtils.env.get("MYSQL_USER_NAME"), DatabaseUtils.env.get("MYSQL_USER_PASSWORD"));
+        try (Connection con = DatabaseUtils.getConnection();
         PreparedStatement statement = con.prepareStatement(query)) {
             statement.setString(1, user.email);
             statement.setString(2, user.password);
@@ -24,6 +24,7 @@ public class UserUtils {
             statement.setInt(7, user.year);
 
             statement.executeUpdate();
+            DashboardStats.studentAdded(user.year);
 
             return ResponseEntity.ok("Student added successfully");
         } catch (SQLException e) {
@@ -37,7 +38,7 @@ public class UserUtils {
                 "SET @last_id = LAST_INSERT_ID(); " +
                 "INSERT INTO admins (user_id) VALUES (@last_id);";
 
-        try (Connection con = DriverManager.getConnection(DatabaseUtils.url, DatabaseUtils.env.get("MYSQL_USER_NAME"), DatabaseUtils.env.get("MYSQL_USER_PASSWORD"));
+        try (Connection con = DatabaseUtils.getConnection();
              PreparedStatement statement = con.prepareStatement(query)) {
             statement.setString(1, user.email);
             statement.setString(2, user.password);
@@ -58,7 +59,7 @@ public class UserUtils {
                 "SET @last_id = LAST_INSERT_ID(); " +
                 "INSERT INTO rep (rep_id, company_id, user_id) VALUES (?, ?, @last_id);";
 
-        try (Connection con = DriverManager.getConnection(DatabaseUtils.url, DatabaseUtils.env.get("MYSQL_USER_NAME"), DatabaseUtils.env.get("MYSQL_USER_PASSWORD"));
+        try (Connection con = DatabaseUtils.getConnection();
              PreparedStatement statement = con.prepareStatement(query)) {
             statement.setString(1, user.email);
             statement.setString(2, user.password);
@@ -0,0 +1,56 @@
+package com.example.isejobsboard.config;
+
+import com.example.isejobsboard.Utils.AdmissionControl;
+import com.example.isejobsboard.Utils.Bulkhead;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds API requests over the {@link AdmissionControl} limit with an immediate 503, lowest priority first.
+ * Streamed lists and admin routes count towards requests in flight but not towards latency.
+ * Outside {@link BulkheadFilter}, so time spent waiting on a bulkhead counts towards the latency the limit adapts to.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+public class AdmissionFilter extends OncePerRequestFilter {
+    private static final String API_PREFIX = "/api/v1";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getServletPath();
+        String apiPath = path.startsWith(API_PREFIX) ? path.substring(API_PREFIX.length()) : null;
+        AdmissionControl.Priority priority = apiPath != null ? AdmissionControl.priorityOf(request.getMethod(), apiPath) : null;
+
+        if (priority == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!AdmissionControl.API.tryAcquire(priority)) {
+            BulkheadFilter.busy(response);
+            return;
+        }
+
+        // Admin work is bounded by its own bulkhead and takes as long as its data
+        boolean measured = Bulkhead.forRequest(request.getMethod(), apiPath) != Bulkhead.ADMIN;
+        long startedAt = System.nanoTime();
+        int status = 500;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            measured &= !AdmissionControl.takeStreamed();
+            AdmissionControl.API.release(measured ? request.getMethod() + " " + apiPath : null,
+                    System.nanoTime() - startedAt, status);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.isejobsboard.config;
+
+import com.example.isejobsboard.Utils.Bulkhead;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs each API request in its {@link Bulkhead}, answering 503 if the bulkhead stays full for
+ * {@code BULKHEAD_WAIT_MS}. Outside {@link UnitOfWorkFilter} so the commit happens while the permit is held.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class BulkheadFilter extends OncePerRequestFilter {
+    private static final String API_PREFIX = "/api/v1";
+
+    static void busy(HttpServletResponse response) throws IOException {
+        response.setStatus(503);
+        response.setHeader("Retry-After", "1");
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"The server is busy, try again shortly.\"}");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getServletPath();
+        Bulkhead bulkhead = path.startsWith(API_PREFIX)
+                ? Bulkhead.forRequest(request.getMethod(), path.substring(API_PREFIX.length())) : null;
+
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            if (!bulkhead.tryEnter(Bulkhead.waitMs)) {
+                busy(response);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.setStatus(503);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.exit();
+        }
+    }
+}
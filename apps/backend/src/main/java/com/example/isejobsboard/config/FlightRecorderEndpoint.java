@@ -0,0 +1,153 @@
+package com.example.isejobsboard.config;
+
+import com.example.isejobsboard.Utils.FlightEvents;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts, stops and downloads a Java Flight Recorder recording, including the {@link FlightEvents}:
+ * <ul>
+ *     <li>{@code POST /actuator/flightrecorder?key=..[&settings=default|profile][&maxAgeMinutes=10]} starts one</li>
+ *     <li>{@code GET /actuator/flightrecorder?key=..} shows its state</li>
+ *     <li>{@code GET /actuator/flightrecorder/recording.jfr?key=..} downloads what it holds, running or stopped</li>
+ *     <li>{@code DELETE /actuator/flightrecorder?key=..} stops it</li>
+ * </ul>
+ * Every operation needs {@code FLIGHT_RECORDER_KEY}, without it the endpoint refuses everything.
+ * The JVM's environment variables and system properties are left out of recordings, they hold the database password.
+ */
+@Component
+@WebEndpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint {
+    private static final String DUMP_NAME = "recording.jfr";
+    private static final byte[] key = keyFromEnv();
+
+    private Recording recording;
+    private Path lastDump;
+
+    private static byte[] keyFromEnv() {
+        String value = System.getenv("FLIGHT_RECORDER_KEY");
+
+        return value == null || value.isBlank() ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean allowed(String given) {
+        return key != null && given != null && MessageDigest.isEqual(key, given.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static WebEndpointResponse<Object> forbidden() {
+        return new WebEndpointResponse<>(Map.of("error", "Invalid key."), 403);
+    }
+
+    @ReadOperation
+    public synchronized WebEndpointResponse<Object> status(@Nullable String key) {
+        if (!allowed(key)) {
+            return forbidden();
+        }
+
+        return new WebEndpointResponse<>(describe(), 200);
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Object> start(@Nullable String key, @Nullable String settings,
+                                                         @Nullable Integer maxAgeMinutes) throws IOException {
+        if (!allowed(key)) {
+            return forbidden();
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings == null ? "default" : settings);
+        } catch (ParseException | IOException e) {
+            // The recording already running is left alone
+            return new WebEndpointResponse<>(Map.of("error", "Unknown settings: " + settings), 400);
+        }
+
+        if (recording != null) {
+            recording.close();
+        }
+
+        recording = new Recording(configuration);
+        recording.setName("isejobsboard");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes == null ? 10 : maxAgeMinutes));
+        recording.disable("jdk.InitialEnvironmentVariable");
+        recording.disable("jdk.InitialSystemProperty");
+        recording.enable(FlightEvents.TokenResolution.class);
+        recording.enable(FlightEvents.SqlStatement.class);
+        recording.enable(FlightEvents.CacheLookup.class);
+        recording.enable(FlightEvents.AllocationPhase.class);
+        recording.start();
+
+        return new WebEndpointResponse<>(describe(), 200);
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Object> stop(@Nullable String key) {
+        if (!allowed(key)) {
+            return forbidden();
+        }
+
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+
+        return new WebEndpointResponse<>(describe(), 200);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Object> dump(@Selector String name, @Nullable String key) throws IOException {
+        // No JSON error bodies here, the response is a file
+        if (!allowed(key)) {
+            return new WebEndpointResponse<>(403);
+        }
+
+        if (!DUMP_NAME.equals(name) || recording == null) {
+            return new WebEndpointResponse<>(404);
+        }
+
+        // Only the latest dump is kept on disk
+        if (lastDump != null) {
+            Files.deleteIfExists(lastDump);
+        }
+
+        lastDump = Files.createTempFile("isejobsboard-", ".jfr");
+        recording.dump(lastDump);
+
+        return new WebEndpointResponse<>(new FileSystemResource(lastDump), 200);
+    }
+
+    private Map<String, Object> describe() {
+        Map<String, Object> status = new LinkedHashMap<>();
+
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+
+        status.put("state", recording.getState().name());
+        status.put("start_time", String.valueOf(recording.getStartTime()));
+        status.put("max_age_minutes", recording.getMaxAge() == null ? null : recording.getMaxAge().toMinutes());
+        status.put("size_bytes", recording.getSize());
+        return status;
+    }
+}
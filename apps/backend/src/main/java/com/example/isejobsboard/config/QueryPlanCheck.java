@@ -0,0 +1,39 @@
+package com.example.isejobsboard.config;
+
+import com.example.isejobsboard.Utils.QueryPlans;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs {@link QueryPlans} at startup, once migrations have run, when {@code QUERY_PLAN_CHECK} asks for it.
+ * {@code warn} logs the hot queries that scan a table, {@code fail} also stops the backend from starting.
+ * Unset or anything else skips the check.
+ */
+@Component
+public class QueryPlanCheck implements ApplicationRunner {
+    private static final String mode = Optional.ofNullable(System.getenv("QUERY_PLAN_CHECK")).orElse("off");
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!mode.equals("warn") && !mode.equals("fail")) {
+            return;
+        }
+
+        List<String> problems = QueryPlans.verify();
+
+        if (problems.isEmpty()) {
+            System.out.println("Query plan check: every hot query uses an index");
+            return;
+        }
+
+        problems.forEach(problem -> System.err.println("Query plan check: " + problem));
+
+        if (mode.equals("fail")) {
+            throw new IllegalStateException(problems.size() + " hot queries don't use an index");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.isejobsboard.config;
+
+import com.example.isejobsboard.Utils.ArchiveUtils;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes expired login sessions every {@code SESSION_PURGE_MINUTES} (default 60, 0 turns it off),
+ * {@code SESSION_PURGE_BATCH} (default 1000) rows per statement. Expired sessions are never accepted,
+ * this only keeps the table and its token index from growing with every login ever made.
+ */
+@Component
+public class SessionPurge implements ApplicationRunner {
+    private static final long intervalMinutes = Long.parseLong(
+            Optional.ofNullable(System.getenv("SESSION_PURGE_MINUTES")).orElse("60"));
+    private static final int batchSize = Integer.parseInt(
+            Optional.ofNullable(System.getenv("SESSION_PURGE_BATCH")).orElse("1000"));
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (intervalMinutes <= 0) {
+            return;
+        }
+
+        ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        purger.scheduleWithFixedDelay(SessionPurge::purge, 1, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    private static void purge() {
+        try {
+            int purged = ArchiveUtils.purgeExpiredSessions(batchSize);
+
+            if (purged > 0) {
+                System.out.println("Purged " + purged + " expired sessions");
+            }
+        } catch (SQLException e) {
+            System.err.println("Session purge failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
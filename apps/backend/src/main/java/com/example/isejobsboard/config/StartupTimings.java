@@ -0,0 +1,59 @@
+package com.example.isejobsboard.config;
+
+import com.example.isejobsboard.IseJobsBoardApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Logs where startup went once the backend is ready: JVM start to {@code main}, which class data sharing shortens,
+ * the Spring context refresh, and the whole run up to ready. Then the {@code STARTUP_TIMINGS_TOP} (default 10)
+ * slowest bean instantiations, 0 leaves them out.
+ */
+@Component
+public class StartupTimings implements ApplicationListener<ApplicationReadyEvent> {
+    private static final int top = Integer.parseInt(
+            Optional.ofNullable(System.getenv("STARTUP_TIMINGS_TOP")).orElse("10"));
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long jvmStartedAt = ManagementFactory.getRuntimeMXBean().getStartTime();
+        List<TimelineEvent> steps = event.getApplicationContext().getApplicationStartup()
+                instanceof BufferingApplicationStartup buffering
+                ? buffering.getBufferedTimeline().getEvents() : List.of();
+
+        long refreshMs = steps.stream()
+                .filter(step -> step.getStartupStep().getName().equals("spring.context.refresh"))
+                .mapToLong(step -> step.getDuration().toMillis())
+                .findFirst().orElse(-1);
+
+        System.out.println("Startup: JVM to main " + (IseJobsBoardApplication.mainStartedAt - jvmStartedAt) + " ms, " +
+                "context refresh " + refreshMs + " ms, " +
+                "main to ready " + event.getTimeTaken().toMillis() + " ms, " +
+                "total " + ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
+
+        steps.stream()
+                .filter(step -> step.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                .limit(top)
+                .forEach(step -> System.out.println("Startup: " + beanName(step.getStartupStep()) + " "
+                        + step.getDuration().toMillis() + " ms"));
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
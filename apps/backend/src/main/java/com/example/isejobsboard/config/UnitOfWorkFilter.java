@@ -0,0 +1,46 @@
+package com.example.isejobsboard.config;
+
+import com.example.isejobsboard.Utils.UnitOfWork;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Wraps each request in a {@link UnitOfWork}, committed if the response is a success and rolled back otherwise,
+ * so the checks and writes a handler makes either all land or none do.
+ */
+@Component
+public class UnitOfWorkFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        UnitOfWork.begin();
+        boolean commit = false;
+
+        try {
+            filterChain.doFilter(request, response);
+            commit = response.getStatus() < 400;
+        } finally {
+            try {
+                UnitOfWork.end(commit);
+            } catch (SQLException e) {
+                e.printStackTrace();
+
+                // Too late if the body has already gone out, otherwise don't report a success that didn't stick
+                if (!response.isCommitted()) {
+                    response.resetBuffer();
+                    response.setStatus(500);
+                    response.setContentType("application/json");
+                    response.getWriter().write("{\"error\":\"An internal server error occurred.\"}");
+                }
+            }
+        }
+    }
+}
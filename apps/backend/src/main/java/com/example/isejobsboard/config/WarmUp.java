@@ -0,0 +1,136 @@
+package com.example.isejobsboard.config;
+
+import com.example.isejobsboard.Utils.CompanyUtils;
+import com.example.isejobsboard.Utils.JobUtils;
+import com.example.isejobsboard.Utils.ResidencyUtils;
+import com.example.isejobsboard.security.SHA256;
+import com.example.isejobsboard.security.SessionToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a synthetic request mix once the backend has started, and keeps the readiness probe
+ * ({@code /actuator/health/readiness}) out of service until it's done, so the first real requests after a deploy
+ * don't run interpreted against empty caches.
+ * <p>
+ * Each round sends the read endpoints through the whole HTTP stack with a token that was never issued, so every
+ * handler turns it away after its session lookup. It then loads and serializes the cached job and company listings
+ * and hashes a password the way {@code /login} does. Nothing is written.
+ * <p>
+ * Ready after {@code WARMUP_ROUNDS} (default 200) rounds, or after {@code WARMUP_MAX_SECONDS} (default 60)
+ * whatever the count, so a slow or unreachable database can't keep an instance out of rotation for good.
+ * 0 rounds turns the warm-up off.
+ */
+@Component
+public class WarmUp implements ApplicationListener<ApplicationReadyEvent>, HealthIndicator {
+    private static final Map<String, String> env = System.getenv();
+    private static final int rounds = Integer.parseInt(
+            Optional.ofNullable(env.get("WARMUP_ROUNDS")).orElse("200"));
+    private static final long maxSeconds = Long.parseLong(
+            Optional.ofNullable(env.get("WARMUP_MAX_SECONDS")).orElse("60"));
+
+    private static final List<String> PATHS = List.of("/jobs", "/job?job_id=1", "/jobs/batch?job_ids=1,2,3", "/companies");
+
+    private final ObjectMapper objectMapper;
+    private volatile boolean done = rounds <= 0;
+    private volatile int completedRounds = 0;
+
+    public WarmUp(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = done ? Health.up() : Health.outOfService();
+
+        return health.withDetail("rounds", completedRounds).withDetail("target", rounds).build();
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (done) {
+            return;
+        }
+
+        String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port", "8080");
+
+        Thread thread = new Thread(() -> run("http://127.0.0.1:" + port + "/api/v1"), "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(String baseUrl) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.SECONDS.toNanos(maxSeconds);
+        int failures = 0;
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        String token = SessionToken.generate();
+
+        try {
+            while (completedRounds < rounds && System.nanoTime() < deadline) {
+                for (String path : PATHS) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .header("Authorization", "Bearer " + token)
+                            .timeout(Duration.ofSeconds(5))
+                            .build();
+
+                    try {
+                        client.send(request, HttpResponse.BodyHandlers.discarding());
+                    } catch (IOException e) {
+                        failures++;
+                    }
+                }
+
+                try {
+                    primeCaches(completedRounds);
+                } catch (SQLException | IOException | RuntimeException e) {
+                    failures++;
+                }
+
+                completedRounds++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            if (completedRounds < rounds) {
+                System.err.println("Warm-up: stopped after " + tookMs + " ms with " + completedRounds + " of "
+                        + rounds + " rounds, " + failures + " failures");
+            } else {
+                System.out.println("Warm-up: " + completedRounds + " rounds in " + tookMs + " ms, " + failures + " failures");
+            }
+
+            done = true;
+        }
+    }
+
+    private void primeCaches(int round) throws SQLException, IOException {
+        for (String year : List.of("1", "2", "3", "4")) {
+            objectMapper.writeValueAsBytes(JobUtils.getApprovedJobs(ResidencyUtils.forYear(year)));
+        }
+        for (String residency : List.of("r1", "r2", "r3", "r4", "r5")) {
+            objectMapper.writeValueAsBytes(JobUtils.getJobsToRank(ResidencyUtils.rankedWith(residency)));
+        }
+        objectMapper.writeValueAsBytes(CompanyUtils.getCompanies());
+
+        SHA256.hash("warm-up@example.invalid" + round + "892225800");
+    }
+}
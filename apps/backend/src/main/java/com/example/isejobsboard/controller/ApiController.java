@@ -1,46 +1,158 @@
 package com.example.isejobsboard.controller;
 
+import com.example.isejobsboard.Utils.AllocationRunner;
+import com.example.isejobsboard.Utils.ArchiveUtils;
+import com.example.isejobsboard.Utils.Bulkhead;
 import com.example.isejobsboard.Utils.CompanyUtils;
+import com.example.isejobsboard.Utils.DashboardStats;
 import com.example.isejobsboard.Utils.DatabaseUtils;
+import com.example.isejobsboard.Utils.JobEvents;
+import com.example.isejobsboard.Utils.JsonStreams;
+import com.example.isejobsboard.Utils.Projection;
+import com.example.isejobsboard.Utils.Projection.Field;
 import com.example.isejobsboard.Utils.JobUtils;
+import com.example.isejobsboard.Utils.ResidencyUtils;
+import com.example.isejobsboard.Utils.RowMapper;
 import com.example.isejobsboard.controller.schemas.*;
+import com.example.isejobsboard.model.AdminUser;
+import com.example.isejobsboard.model.AllocationRun;
+import com.example.isejobsboard.model.ArchivedAllocation;
+import com.example.isejobsboard.model.ArchivedJob;
+import com.example.isejobsboard.model.CompanyInfo;
 import com.example.isejobsboard.model.GreetingMessage;
 import com.example.isejobsboard.model.Interview;
+import com.example.isejobsboard.model.JobInfo;
+import com.example.isejobsboard.model.RepInfo;
 import com.example.isejobsboard.model.SmallJob;
+import com.example.isejobsboard.model.StudentInfo;
+import com.example.isejobsboard.model.StudentUser;
+import com.example.isejobsboard.model.UserProfile;
 import com.example.isejobsboard.controller.schemas.Student;
 import com.example.isejobsboard.repository.GreetingMessageRepository;
+import com.example.isejobsboard.security.AccessToken;
+import com.example.isejobsboard.security.RateLimiter;
 import com.example.isejobsboard.security.Authenticator;
 import com.example.isejobsboard.security.SHA256;
+import com.example.isejobsboard.security.SessionToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.example.isejobsboard.Utils.UserUtils;
 
+import java.io.IOException;
 import java.sql.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/v1")
 public class ApiController {
 
-    private static final Map<String, String> env = DatabaseUtils.env;
-
-    private final String dbUrl = DatabaseUtils.url;
-
-    private final GreetingMessageRepository greetingMessageRepository;
+    // A whole campus can sit behind one IP, so the per IP limits are loose and the per account ones tight
+    private static final RateLimiter loginByIp = RateLimiter.fromEnv("login-ip", 60, 120);
+    private static final RateLimiter loginByEmail = RateLimiter.fromEnv("login-email", 5, 10);
+    private static final RateLimiter createJobLimit = RateLimiter.fromEnv("create-job", 10, 20);
+    private static final RateLimiter setPreferencesLimit = RateLimiter.fromEnv("set-preferences", 20, 30);
+
+    // The jobs among those matched by %s that the session's user may see: admins all, reps their company's,
+    // students their year's residencies
+    private static final String JOB_ACCESS_SQL = "WITH CurrentUser AS (" +
+            "  SELECT user_id " +
+            "  FROM login_sessions " +
+            "  WHERE token = ? AND expiry > NOW()" +
+            ") " +
+            "SELECT j.job_id " +
+            "FROM job j, CurrentUser cu " +
+            "WHERE %s " +
+            "AND (" +
+            "  EXISTS (" +
+            "    SELECT 1 " +
+            "    FROM admins a " +
+            "    WHERE a.user_id = cu.user_id" +
+            "  ) " +
+            "  OR " +
+            "  EXISTS (" +
+            "    SELECT 1 " +
+            "    FROM rep r " +
+            "    WHERE r.user_id = cu.user_id " +
+            "      AND r.company_id = j.company_id" +
+            "  ) " +
+            "  OR " +
+            "  EXISTS (" +
+            "    SELECT 1 " +
+            "    FROM student s " +
+            "    WHERE s.user_id = cu.user_id " +
+            "      AND (" +
+            "        (s.year = 1 AND j.residency IN ('r1', 'r2', 'r1+r2')) OR " +
+            "        (s.year = 2 AND j.residency = 'r3') OR " +
+            "        (s.year = 3 AND j.residency = 'r4') OR " +
+            "        (s.year = 4 AND j.residency = 'r5')" +
+            "      )" +
+            "  )" +
+            ")";
+
+    private static final String JOB_INFO_COLUMNS = "j.job_id, j.job_title, j.salary, " +
+            "j.description, j.position_count, c.name, c.company_id, " +
+            "j.residency, j.approval, j.residency_title, " +
+            "j.salary, c.website, j.small_description";
+
+    private static final int maxBatchJobs = Integer.parseInt(
+            Optional.ofNullable(System.getenv("JOBS_BATCH_MAX")).orElse("100"));
+
+    private static final RowMapper<SmallJob> ADMIN_JOB = rs -> new SmallJob((long) rs.getInt("job_id"),
+            rs.getString("job_title"), rs.getString("name"), rs.getString("small_description"),
+            rs.getFloat("salary"), rs.getString("residency"), rs.getTimestamp("post_date"),
+            rs.getInt("position_count"), rs.getString("approval"));
+
+    // Absent when JPA is turned off (the faststart profile)
+    private final ObjectProvider<GreetingMessageRepository> greetingMessageRepository;
+    // Spring's mapper, so streamed lists serialize exactly like returned ones
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ApiController(GreetingMessageRepository greetingMessageRepository) {
+    public ApiController(ObjectProvider<GreetingMessageRepository> greetingMessageRepository, ObjectMapper objectMapper) {
         this.greetingMessageRepository = greetingMessageRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return a 429 response if any of the keys is out of tokens, otherwise null
+     */
+    private static ResponseEntity<Object> rateLimit(RateLimiter limiter, String... keys) {
+        for (String key : keys) {
+            long retryAfter = limiter.tryAcquire(key);
+
+            if (retryAfter > 0) {
+                return ResponseEntity.status(429)
+                        .header("Retry-After", String.valueOf(retryAfter))
+                        .body(Map.of("error", "Too many requests, try again later."));
+            }
+        }
+        return null;
     }
 
     @GetMapping("/greeting")
     public Map<String, String> getGreeting() {
+        GreetingMessageRepository greetingMessageRepository = this.greetingMessageRepository.getIfAvailable();
+        if (greetingMessageRepository == null) {
+            return Map.of("message", "Hello from Spring Boot Backend!");
+        }
+
         List<GreetingMessage> messages = greetingMessageRepository.findAll();
         String dbMessage;
         if (messages.isEmpty()) {
@@ -56,7 +168,14 @@ public class ApiController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Object> login(@RequestBody UserLogin body) {
+    public ResponseEntity<Object> login(@RequestBody UserLogin body, HttpServletRequest request) {
+        ResponseEntity<Object> limited = rateLimit(loginByIp, request.getRemoteAddr());
+        if (limited == null && body.email != null) {
+            limited = rateLimit(loginByEmail, body.email.toLowerCase());
+        }
+        if (limited != null) {
+            return limited;
+        }
 
         // Use a PreparedStatement with a placeholder (?) to prevent SQL Injection !!!!
         String query = "SELECT * FROM users WHERE email = ?";
@@ -66,7 +185,7 @@ public class ApiController {
         String hashedPassword = SHA256.hash(dynamic_salt + body.password + static_salt);
 
         // Use try-with-resources for automatic closing of database connections
-        try (Connection userConnection = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection userConnection = DatabaseUtils.getConnection();
              PreparedStatement userStatement = userConnection.prepareStatement(query)) {
 
             // Safely set the email parameter
@@ -78,7 +197,17 @@ public class ApiController {
                 while (userResultSet.next()) {
                     if (userResultSet.getString("email").equals(body.email) && hashedPassword.equals(userResultSet.getString("password"))) {
 
-                        String token = Authenticator.createToken(userResultSet.getInt("user_id"));
+                        int userId = userResultSet.getInt("user_id");
+                        String token = Authenticator.createToken(userId);
+
+                        String accessToken = AccessToken.isEnabled() ? Authenticator.issueAccessToken(userId) : null;
+                        if (accessToken != null) {
+                            return ResponseEntity.ok(Map.of(
+                                    "token", token,
+                                    "access_token", accessToken,
+                                    "access_token_expires_in", AccessToken.ttlSeconds));
+                        }
+
                         // Correct way to return responses !!
                         return ResponseEntity.ok(Map.of("token", token));
 
@@ -115,7 +244,7 @@ public class ApiController {
         String query = "INSERT INTO company(name, website, champion) VALUES (?, ?, ?)";
 
         // Use try-with-resources for automatic resource management
-        try (Connection userConnection = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection userConnection = DatabaseUtils.getConnection();
              PreparedStatement userStatement = userConnection.prepareStatement(query)) {
 
             // Safely set the parameters
@@ -124,6 +253,7 @@ public class ApiController {
             userStatement.setString(3, company.getChampion());
 
             userStatement.executeUpdate();
+            CompanyUtils.invalidateCaches();
 
             // SUCCESS: User was created. Return 201 Created.
             return ResponseEntity.status(201).body(Map.of("message", "Company created successfully"));
@@ -143,11 +273,12 @@ public class ApiController {
         try {
             if (Authenticator.getAccessLevel(token).equals("admin")) {
                 String sql = "DELETE FROM company WHERE company_id = ?";
-                try (Connection connection = DriverManager.getConnection(dbUrl,
-                        env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+                try (Connection connection = DatabaseUtils.getConnection();
                      PreparedStatement statement = connection.prepareStatement(sql)) {
                     statement.setInt(1, companyId);
                     statement.executeUpdate();
+                    CompanyUtils.invalidateCaches();
+                    DashboardStats.reconcileSoon();
                     return ResponseEntity.ok(Map.of("message", "Company deleted"));
                 }
             } else {
@@ -181,7 +312,7 @@ public class ApiController {
                 "WHERE company_id = ?";
 
         // Use try-with-resources for automatic resource management
-        try (Connection userConnection = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection userConnection = DatabaseUtils.getConnection();
              PreparedStatement userStatement = userConnection.prepareStatement(query)) {
 
             // Safely set the parameters
@@ -191,6 +322,7 @@ public class ApiController {
             userStatement.setInt(4, companyId);
 
             userStatement.executeUpdate();
+            CompanyUtils.invalidateCaches();
 
             // SUCCESS: Company was updated. Return 201 Created.
             return ResponseEntity.status(201).body(Map.of("message", "Company updated successfully"));
@@ -222,6 +354,40 @@ public class ApiController {
         }
     }
 
+    /**
+     * Exchanges a database session token for a fresh signed access token.
+     */
+    @PostMapping("/access-token")
+    public ResponseEntity<Object> refreshAccessToken(@RequestHeader("Authorization") String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(400).body(Map.of("error", "Malformed Authorization header."));
+        }
+
+        if (!AccessToken.isEnabled()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Access tokens are not enabled."));
+        }
+
+        String token = authHeader.substring(7);
+
+        try {
+            if (Authenticator.isTokenValid(token)) {
+                String accessToken = Authenticator.issueAccessToken(Authenticator.getUserIdFromToken(token));
+                if (accessToken == null) {
+                    return ResponseEntity.status(403).body(Map.of("error", "This account is not linked to a company."));
+                }
+
+                return ResponseEntity.ok(Map.of(
+                        "access_token", accessToken,
+                        "access_token_expires_in", AccessToken.ttlSeconds));
+            } else {
+                return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired token"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+        }
+    }
+
     /*
     @PostMapping("/signup")
     public ResponseEntity<Object> signup(@RequestBody UserSignup user) {
@@ -241,7 +407,7 @@ public class ApiController {
         }
 
         // Use try-with-resources for automatic resource management
-        try (Connection userConnection = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection userConnection = DatabaseUtils.getConnection();
              PreparedStatement userStatement = userConnection.prepareStatement(query)) {
 
             // Safely set the parameters
@@ -281,23 +447,15 @@ public class ApiController {
                 "JOIN login_sessions ls ON u.user_id = ls.user_id " +
                 "WHERE ls.token = ? AND ls.expiry > NOW()";
 
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
 
-            statement.setString(1, token);
+            statement.setBytes(1, SessionToken.digest(token));
 
             try (ResultSet rs = statement.executeQuery()) {
                 if (rs.next()) {
                     // Token is valid and we found the user
-                    Map<String, Object> userData = new HashMap<>();
-
-                    userData.put("user_id", rs.getInt("user_id"));
-                    userData.put("first_name", rs.getString("first_name"));
-                    userData.put("last_name", rs.getString("last_name"));
-                    userData.put("email", rs.getString("email"));
-
-                    return ResponseEntity.ok(userData);
+                    return ResponseEntity.ok(UserProfile.ROW_MAPPER.mapRow(rs));
                 } else {
                     // Token is invalid, expired, or doesn't exist
                     return ResponseEntity.status(401).body(Map.of("error", "Unauthorized: Invalid or expired token."));
@@ -343,52 +501,23 @@ public class ApiController {
      * <p> userd for getting all jobs associated with a given access level</p>
      */
     @GetMapping("/job")
-    public ResponseEntity<Object> getJobInfo(@RequestHeader("Authorization") String authHeader, @RequestParam("job_id") long id) {
+    public ResponseEntity<Object> getJobInfo(@RequestHeader("Authorization") String authHeader, @RequestParam("job_id") long id,
+                                             @RequestParam(value = "fields", required = false) String fields) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {//early return for incorrect auth token
             return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
         }
         //gets rid of the Bearer signiture
         String token = authHeader.substring(7);
         try {
+            //only the fields asked for are read and sent, null means all of them
+            List<Field> projected = JobInfo.FIELDS.select(fields);
+
             if (Authenticator.isTokenValid(token)) {
                 //query to validate that the user has access to the job posting
-                String sql = "WITH CurrentUser AS (" +
-                        "  SELECT user_id " +
-                        "  FROM login_sessions " +
-                        "  WHERE token = ? AND expiry > NOW()" +
-                        ") " +
-                        "SELECT j.job_id " +
-                        "FROM job j, CurrentUser cu " +
-                        "WHERE j.job_id = ? " +
-                        "AND (" +
-                        "  EXISTS (" +
-                        "    SELECT 1 " +
-                        "    FROM admins a " +
-                        "    WHERE a.user_id = cu.user_id" +
-                        "  ) " +
-                        "  OR " +
-                        "  EXISTS (" +
-                        "    SELECT 1 " +
-                        "    FROM rep r " +
-                        "    WHERE r.user_id = cu.user_id " +
-                        "      AND r.company_id = j.company_id" +
-                        "  ) " +
-                        "  OR " +
-                        "  EXISTS (" +
-                        "    SELECT 1 " +
-                        "    FROM student s " +
-                        "    WHERE s.user_id = cu.user_id " +
-                        "      AND (" +
-                        "        (s.year = 1 AND j.residency IN ('r1', 'r2', 'r1+r2')) OR " +
-                        "        (s.year = 2 AND j.residency = 'r3') OR " +
-                        "        (s.year = 3 AND j.residency = 'r4') OR " +
-                        "        (s.year = 4 AND j.residency = 'r5')" +
-                        "      )" +
-                        "  )" +
-                        ");";
-                try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+                String sql = String.format(JOB_ACCESS_SQL, "j.job_id = ?");
+                try (Connection con = DatabaseUtils.getConnection();
                      PreparedStatement statement = con.prepareStatement(sql)) {
-                    statement.setString(1, token);
+                    statement.setBytes(1, SessionToken.digest(token));
                     statement.setLong(2, id);
 
                     try (ResultSet rs = statement.executeQuery()) {
@@ -399,37 +528,20 @@ public class ApiController {
                 }
 
 
-                sql = "SELECT j.job_id, j.job_title, j.salary, " +
-                        "j.description, j.position_count, c.name, c.company_id, " +
-                        "j.residency, j.approval, j.residency_title, " +
-                        "j.salary, c.website, j.small_description " +
+                sql = "SELECT " + (projected == null ? JOB_INFO_COLUMNS : Projection.columns(projected)) + " " +
                         "FROM job j " +
                         "INNER JOIN company c " +
                         "ON j.company_id = c.company_id " +
                         "WHERE j.job_id = ?";
 
-                try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+                try (Connection con = DatabaseUtils.getReadConnection();
                      PreparedStatement statement = con.prepareStatement(sql)) {
 
                     statement.setLong(1, id);
 
                     try (ResultSet rs = statement.executeQuery()) {
                         if (rs.next()) {
-                            Map<String, Object> userData = new HashMap<>();
-
-                            userData.put("job_title", rs.getString("job_title"));
-                            userData.put("residency_title", rs.getString("residency_title"));
-                            userData.put("description", rs.getString("description"));
-                            userData.put("position_count", rs.getInt("position_count"));
-                            userData.put("company_name", rs.getString("name"));
-                            userData.put("company_id", rs.getString("company_id"));
-                            userData.put("approval", rs.getString("approval"));
-                            userData.put("salary", rs.getFloat("salary"));
-                            userData.put("website", rs.getString("website"));
-                            userData.put("residency", rs.getString("residency"));
-                            userData.put("small_description", rs.getString("small_description"));
-
-                            return ResponseEntity.ok(userData);
+                            return ResponseEntity.ok(projected == null ? JobInfo.ROW_MAPPER.mapRow(rs) : Projection.mapper(projected).mapRow(rs));
                         } else {
                             return ResponseEntity.status(404).body(Map.of("error", "job not found."));
                         }
@@ -438,6 +550,8 @@ public class ApiController {
             } else {
                 return ResponseEntity.status(401).body(Map.of("error", "Unauthorized: Invalid or expired token."));
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         } catch (SQLException e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
@@ -445,212 +559,216 @@ public class ApiController {
     }
 
 
+    /**
+     * Details of several jobs at once, keyed by job id, for pages that would otherwise call {@code /job} per job.
+     * Access is checked for the whole set in one query. Jobs that don't exist or the caller can't see are left out.
+     * Takes up to {@code JOBS_BATCH_MAX} (default 100) ids, and {@code fields} like {@code /job}.
+     */
+    @GetMapping("/jobs/batch")
+    public ResponseEntity<Object> getJobInfoBatch(@RequestHeader("Authorization") String authHeader,
+                                                  @RequestParam("job_ids") String jobIdsParam,
+                                                  @RequestParam(value = "fields", required = false) String fields) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
+        }
+
+        String token = authHeader.substring(7);
+
+        Set<Long> jobIds = new LinkedHashSet<>();
+        try {
+            for (String jobId : jobIdsParam.split(",")) {
+                if (!jobId.isBlank()) {
+                    jobIds.add(Long.parseLong(jobId.trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(400).body(Map.of("error", "job_ids must be a comma separated list of ids."));
+        }
+
+        if (jobIds.isEmpty()) {
+            return ResponseEntity.status(400).body(Map.of("error", "job_ids must be a comma separated list of ids."));
+        }
+        if (jobIds.size() > maxBatchJobs) {
+            return ResponseEntity.status(400).body(Map.of("error", "At most " + maxBatchJobs + " jobs per request."));
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(jobIds.size(), "?"));
+
+        try {
+            List<Field> projected = JobInfo.FIELDS.select(fields);
+
+            if (!Authenticator.isTokenValid(token)) {
+                return ResponseEntity.status(401).body(Map.of("error", "Unauthorized: Invalid or expired token."));
+            }
+
+            List<Long> allowed = new ArrayList<>();
+            try (Connection con = DatabaseUtils.getConnection();
+                 PreparedStatement statement = con.prepareStatement(
+                         String.format(JOB_ACCESS_SQL, "j.job_id IN (" + placeholders + ")"))) {
+                statement.setBytes(1, SessionToken.digest(token));
+                int i = 2;
+                for (long jobId : jobIds) {
+                    statement.setLong(i++, jobId);
+                }
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        allowed.add(rs.getLong("job_id"));
+                    }
+                }
+            }
+
+            Map<Long, Object> jobs = new LinkedHashMap<>();
+            if (allowed.isEmpty()) {
+                return ResponseEntity.ok(jobs);
+            }
+
+            // job_id keys the result even when it isn't one of the fields sent
+            String sql = "SELECT " + (projected == null ? JOB_INFO_COLUMNS : "j.job_id, " + Projection.columns(projected)) + " " +
+                    "FROM job j " +
+                    "INNER JOIN company c " +
+                    "ON j.company_id = c.company_id " +
+                    "WHERE j.job_id IN (" + String.join(", ", Collections.nCopies(allowed.size(), "?")) + ")";
+            RowMapper<?> mapper = projected == null ? JobInfo.ROW_MAPPER : Projection.mapper(projected);
+            Map<Long, Object> found = new HashMap<>();
+
+            try (Connection con = DatabaseUtils.getReadConnection();
+                 PreparedStatement statement = con.prepareStatement(sql)) {
+                for (int i = 0; i < allowed.size(); i++) {
+                    statement.setLong(i + 1, allowed.get(i));
+                }
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        found.put(rs.getLong("job_id"), mapper.mapRow(rs));
+                    }
+                }
+            }
+
+            // In the order asked for
+            for (long jobId : jobIds) {
+                if (found.containsKey(jobId)) {
+                    jobs.put(jobId, found.get(jobId));
+                }
+            }
+
+            return ResponseEntity.ok(jobs);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+        }
+    }
+
     @GetMapping("/jobs")
-    public ResponseEntity<Object> getJobs(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<Object> getJobs(@RequestHeader("Authorization") String authHeader,
+                                          @RequestParam(value = "fields", required = false) String fields,
+                                          HttpServletResponse response) throws IOException {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {//early return for incorrect auth token
             return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
         }
         //gets rid of the Bearer signiture
         String token = authHeader.substring(7);
+        //a signed access token is checked without going to the db
+        AccessToken.Claims claims = AccessToken.verify(token);
 
         try {
-            if (Authenticator.isTokenValid(token)) {
-                switch (Authenticator.getAccessLevel(token)) {//check access level
+            //only the fields asked for are read and sent, null means all of them
+            List<Field> projected = SmallJob.FIELDS.select(fields);
+
+            if (claims != null || Authenticator.isTokenValid(token)) {
+                switch (claims != null ? claims.role() : Authenticator.getAccessLevel(token)) {//check access level
                     case "admin":
                         //query for getting all jobs
-                        String sql = "SELECT j.job_id, j.job_title, j.approval, " +
+                        String sql = "SELECT " + (projected == null ? "j.job_id, j.job_title, j.approval, " +
                                 "j.salary, j.small_description, j.residency, c.name, " +
-                                "j.post_date, j.position_count " +
+                                "j.post_date, j.position_count" : Projection.columns(projected)) + " " +
                                 "FROM job j " +
                                 "INNER JOIN company c " +
                                 "ON j.company_id = c.company_id";
 
-                        //stores all the job descriptions
-                        List<SmallJob> userData = new ArrayList<>();
-
-                        //tries to connect to db
-                        try (Connection connection = DriverManager.getConnection(dbUrl,
-                                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                             PreparedStatement statement = connection.prepareStatement(sql)) {
-                            try (ResultSet rs = statement.executeQuery()) {
-                                //get all jobs
-                                while (rs.next()) {
-                                    //add the job info
-                                    SmallJob jobInfo = new SmallJob((long)
-                                            rs.getInt("job_id"), rs.getString("job_title"),
-                                            rs.getString("name"), rs.getString("small_description"),
-                                            rs.getFloat("salary"), rs.getString("residency"),
-                                            rs.getTimestamp("post_date"),
-                                            rs.getInt("position_count"),
-                                            rs.getString("approval")
-                                    );
-                                    userData.add(jobInfo);
-
-                                }
+                        //every job there is, streamed straight to the response under the admin bulkhead and its timeout
+                        try {
+                            if (!Bulkhead.ADMIN.tryEnter(Bulkhead.waitMs)) {
+                                return ResponseEntity.status(503).header("Retry-After", "1")
+                                        .body(Map.of("error", "The server is busy, try again shortly."));
                             }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return ResponseEntity.status(503).build();
+                        }
+                        try (Connection connection = DatabaseUtils.getReadConnection();
+                             PreparedStatement statement = JsonStreams.prepare(connection, sql)) {
+                            JsonStreams.writeArray(response, objectMapper, statement,
+                                    projected == null ? ADMIN_JOB : Projection.mapper(projected));
+                            return null;
                         }
                         //if connection not made
                         catch (SQLException e) {
                             e.printStackTrace();
                             return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+                        } finally {
+                            Bulkhead.ADMIN.exit();
                         }
-                        return ResponseEntity.ok(userData);
 
                     //if access level is student
                     case "student":
-                        //check yaar of student and only show associated residencies
-                        //similar format to admin check comments for reference
-                        switch (Student.getYear(token)) {
-                            case "1":
-                                sql = "SELECT j.job_title, j.job_id, " +
-                                        "j.salary, j.small_description, j.residency, c.name, j.post_date, j.position_count " +
-                                        "FROM job j " +
-                                        "INNER JOIN company c " +
-                                        "ON j.company_id = c.company_id " +
-                                        "WHERE j.residency = 'r1' OR 'r2' OR 'r1+r2' " +
-                                        "AND j.approval ='approved'";
-                                userData = new ArrayList<>();
-                                try (Connection connection = DriverManager.getConnection(dbUrl,
-                                        env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                                     PreparedStatement statement = connection.prepareStatement(sql)) {
-                                    try (ResultSet rs = statement.executeQuery()) {
-                                        while (rs.next()) {
-                                            SmallJob jobInfo = new SmallJob((long) rs.getInt("job_id"), rs.getString("job_title"),
-                                                    rs.getString("name"), rs.getString("small_description"),
-                                                    rs.getFloat("salary"), rs.getString("residency"),
-                                                    rs.getTimestamp("post_date"), rs.getInt("position_count"));
-                                            userData.add(jobInfo);
-
-                                        }
-
-                                    }
-                                } catch (SQLException e) {
-                                    e.printStackTrace();
-                                    return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
-                                }
-                                return ResponseEntity.ok(userData);
-
-
-                            case "2":
-                                sql = "SELECT j.job_title, j.job_id, " +
-                                        "j.salary, j.small_description, j.residency, c.name, j.post_date, j.position_count " +
-                                        "FROM job j " +
-                                        "INNER JOIN company c " +
-                                        "ON j.company_id = c.company_id " +
-                                        "WHERE j.residency = 'r3' " +
-                                        "AND j.approval ='approved'";
-                                userData = new ArrayList<>();
-                                try (Connection connection = DriverManager.getConnection(dbUrl,
-                                        env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                                     PreparedStatement statement = connection.prepareStatement(sql)) {
-                                    System.out.println("connected!!");
-                                    try (ResultSet rs = statement.executeQuery()) {
-                                        while (rs.next()) {
-                                            // Token is valid and we found the user
-                                            SmallJob jobInfo = new SmallJob((long) rs.getInt("job_id"), rs.getString("job_title"),
-                                                    rs.getString("name"), rs.getString("small_description"),
-                                                    rs.getFloat("salary"), rs.getString("residency"),
-                                                    rs.getTimestamp("post_date"), rs.getInt("position_count"));
-                                            userData.add(jobInfo);
-
-                                        }
-                                    }
-                                } catch (SQLException e) {
-                                    e.printStackTrace();
-                                    return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
-                                }
-
-                                return ResponseEntity.ok(userData);
-                            case "3":
-                                sql = "SELECT j.job_title, j.job_id, " +
-                                        "j.salary, j.small_description, j.residency, c.name, j.post_date, j.position_count " +
-                                        "FROM job j " +
-                                        "INNER JOIN company c " +
-                                        "ON j.company_id = c.company_id " +
-                                        "WHERE j.residency = 'r4'" +
-                                        "AND j.approval ='approved'";
-                                userData = new ArrayList<>();
-                                try (Connection connection = DriverManager.getConnection(dbUrl,
-                                        env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                                     PreparedStatement statement = connection.prepareStatement(sql)) {
-                                    System.out.println("connected!!");
-                                    try (ResultSet rs = statement.executeQuery()) {
-                                        while (rs.next()) {
-                                            // Token is valid and we found the user
-                                            SmallJob jobInfo = new SmallJob((long) rs.getInt("job_id"), rs.getString("job_title"),
-                                                    rs.getString("name"), rs.getString("small_description"),
-                                                    rs.getFloat("salary"), rs.getString("residency"),
-                                                    rs.getTimestamp("post_date"), rs.getInt("position_count"));
-                                            userData.add(jobInfo);
-
-                                        }
-                                    }
-                                } catch (SQLException e) {
-                                    e.printStackTrace();
-                                    return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
-                                }
-
-                                return ResponseEntity.ok(userData);
-                            case "4":
-                                sql = "SELECT j.job_title, j.job_id, " +
-                                        "j.salary, j.small_description, j.residency, c.name, j.post_date, j.position_count " +
-                                        "FROM job j " +
-                                        "INNER JOIN company c " +
-                                        "ON j.company_id = c.company_id " +
-                                        "WHERE j.residency = 'r5'" +
-                                        "AND j.approval ='approved'";
-                                userData = new ArrayList<>();
-                                try (Connection connection = DriverManager.getConnection(dbUrl,
-                                        env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                                     PreparedStatement statement = connection.prepareStatement(sql)) {
-                                    System.out.println("connected!!");
-                                    try (ResultSet rs = statement.executeQuery()) {
-                                        while (rs.next()) {
-                                            // Token is valid and we found the user
-                                            SmallJob jobInfo = new SmallJob((long) rs.getInt("job_id"), rs.getString("job_title"),
-                                                    rs.getString("name"), rs.getString("small_description"),
-                                                    rs.getFloat("salary"), rs.getString("residency"),
-                                                    rs.getTimestamp("post_date"), rs.getInt("position_count"));
-                                            userData.add(jobInfo);
-
-                                        }
-                                    }
-                                } catch (SQLException e) {
-                                    e.printStackTrace();
-                                    return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
-                                }
+                        //students only see the approved jobs of their year's residencies
+                        List<String> residencies = ResidencyUtils.forYear(claims != null ? claims.year() : Student.getYear(token));
 
-                                return ResponseEntity.ok(userData);
+                        if (residencies.isEmpty()) {
+                            break;
                         }
-                        break;
+
+                        //the listing is shared through a cache, so it's trimmed after loading
+                        List<SmallJob> approved = JobUtils.getApprovedJobs(residencies);
+                        return ResponseEntity.ok(projected == null ? approved : Projection.trim(objectMapper, approved, projected));
                     case "rep":
                         //prepared statement to prevent sql injections
-                        sql = "SELECT j.job_title, j.job_id, j.approval," +
-                                "j.salary, j.small_description, j.residency, c.name, j.post_date ,j.position_count " +
-                                "FROM job j " +
-                                "INNER JOIN company c " +
-                                "ON j.company_id = c.company_id " +
-                                "INNER JOIN rep rp " +
-                                "ON rp.company_id = c.company_id " +
-                                "INNER JOIN login_sessions ls " +
-                                "ON rp.user_id = ls.user_id " +
-                                "WHERE ls.token = ? " +
-                                "AND ls.expiry > NOW()";
-
-                        userData = new ArrayList<>();
-                        try (Connection connection = DriverManager.getConnection(dbUrl,
-                                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+                        String columns = projected == null ? "j.job_title, j.job_id, j.approval," +
+                                "j.salary, j.small_description, j.residency, c.name, j.post_date ,j.position_count"
+                                : Projection.columns(projected);
+
+                        if (claims != null) {
+                            //the access token already says which company the rep belongs to
+                            sql = "SELECT " + columns + " " +
+                                    "FROM job j " +
+                                    "INNER JOIN company c " +
+                                    "ON j.company_id = c.company_id " +
+                                    "WHERE j.company_id = ?";
+                        } else {
+                            sql = "SELECT " + columns + " " +
+                                    "FROM job j " +
+                                    "INNER JOIN company c " +
+                                    "ON j.company_id = c.company_id " +
+                                    "INNER JOIN rep rp " +
+                                    "ON rp.company_id = c.company_id " +
+                                    "INNER JOIN login_sessions ls " +
+                                    "ON rp.user_id = ls.user_id " +
+                                    "WHERE ls.token = ? " +
+                                    "AND ls.expiry > NOW()";
+                        }
+
+                        List<Object> userData = new ArrayList<>();
+                        RowMapper<?> mapper = projected == null
+                                ? rs -> new SmallJob((long) rs.getInt("job_id"), rs.getString("job_title"),
+                                        rs.getString("name"), rs.getString("small_description"),
+                                        rs.getFloat("salary"), rs.getString("residency"),
+                                        rs.getString("approval"), rs.getTimestamp("post_date"), rs.getInt("position_count"))
+                                : Projection.mapper(projected);
+                        //the session join has to see logins made moments ago so it stays on the primary
+                        try (Connection connection = (claims != null ? DatabaseUtils.getReadConnection() : DatabaseUtils.getConnection());
                              PreparedStatement statement = connection.prepareStatement(sql)) {
-                            statement.setString(1, token);
+                            if (claims != null) {
+                                statement.setInt(1, claims.companyId());
+                            } else {
+                                statement.setBytes(1, SessionToken.digest(token));
+                            }
                             try (ResultSet rs = statement.executeQuery()) {
                                 //adds all the jobs associated with the reps company
                                 while (rs.next()) {
-                                    SmallJob jobInfo = new SmallJob((long) rs.getInt("job_id"), rs.getString("job_title"),
-                                            rs.getString("name"), rs.getString("small_description"),
-                                            rs.getFloat("salary"), rs.getString("residency"),
-                                            rs.getString("approval"), rs.getTimestamp("post_date"), rs.getInt("position_count"));
-                                    userData.add(jobInfo);
-
+                                    userData.add(mapper.mapRow(rs));
                                 }
                             }
 
@@ -663,6 +781,8 @@ public class ApiController {
             } else {
                 return ResponseEntity.status(401).body(Map.of("error", "Unauthorized: Invalid or expired token."));
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         } catch (SQLException e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
@@ -670,6 +790,50 @@ public class ApiController {
         return ResponseEntity.status(401).body(Map.of("testing", "not admin"));
     }
 
+    /**
+     * Job changes as server-sent events. EventSource can't set headers, so an access token may also come as a parameter.
+     * Session tokens only in the header: query strings end up in proxy logs and browser history.
+     */
+    @GetMapping(value = "/jobs/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJobs(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                                 @RequestParam(value = "token", required = false) String tokenParam) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            //a short lived signed token is all a query string can carry
+            AccessToken.Claims claims = tokenParam != null ? AccessToken.verify(tokenParam) : null;
+
+            if (claims == null) {
+                return ResponseEntity.status(401).build();
+            }
+            return ResponseEntity.ok(JobEvents.subscribe(claims.role(), claims.year(), claims.companyId(),
+                    claims.expiresAt() * 1000));
+        }
+
+        String token = authHeader.substring(7);
+
+        try {
+            AccessToken.Claims claims = AccessToken.verify(token);
+
+            if (claims != null) {
+                return ResponseEntity.ok(JobEvents.subscribe(claims.role(), claims.year(), claims.companyId(),
+                        claims.expiresAt() * 1000));
+            }
+            if (!Authenticator.isTokenValid(token)) {
+                return ResponseEntity.status(401).build();
+            }
+
+            String role = Authenticator.getAccessLevel(token);
+            String year = role.equals("student") ? Student.getYear(token) : null;
+            int companyId = role.equals("rep")
+                    ? CompanyUtils.getCompanyInfoFromUserId(Authenticator.getUserIdFromToken(token)).id : 0;
+
+            //the stream's own timeout makes session holders re-authenticate
+            return ResponseEntity.ok(JobEvents.subscribe(role, year, companyId, Long.MAX_VALUE));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).build();
+        }
+    }
+
     @GetMapping("/student-info")
     public ResponseEntity<Object> getStudentInfo(@RequestHeader("Authorization") String authHeader, @RequestParam("user_id") int userId) {
 
@@ -699,21 +863,14 @@ public class ApiController {
                                 "WHERE s.user_id = ?";
 
 
-                try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+                try (Connection con = DatabaseUtils.getConnection();
                      PreparedStatement statement = con.prepareStatement(query)) {
 
                     statement.setInt(1, userId);
 
                     try (ResultSet rs = statement.executeQuery()) {
                         if (rs.next()) {
-                            Map<String, Object> userData = new HashMap<>();
-
-                            userData.put("student_number", rs.getInt("student_number"));
-                            userData.put("user_id", rs.getInt("user_id"));
-                            userData.put("year", rs.getInt("year"));
-                            userData.put("ranked", rs.getBoolean("ranked"));
-
-                            return ResponseEntity.ok(userData);
+                            return ResponseEntity.ok(StudentInfo.ROW_MAPPER.mapRow(rs));
                         } else {
                             return ResponseEntity.status(404).body(Map.of("error", "Student not found."));
                         }
@@ -750,20 +907,14 @@ public class ApiController {
                 String query = "SELECT * FROM rep WHERE user_id = ?";
 
 
-                try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+                try (Connection con = DatabaseUtils.getConnection();
                      PreparedStatement statement = con.prepareStatement(query)) {
 
                     statement.setInt(1, userId);
 
                     try (ResultSet rs = statement.executeQuery()) {
                         if (rs.next()) {
-                            Map<String, Object> userData = new HashMap<>();
-
-                            userData.put("rep_id", rs.getInt("rep_id"));
-                            userData.put("user_id", rs.getInt("user_id"));
-                            userData.put("company_id", rs.getInt("company_id"));
-
-                            return ResponseEntity.ok(userData);
+                            return ResponseEntity.ok(RepInfo.ROW_MAPPER.mapRow(rs));
                         } else {
                             return ResponseEntity.status(404).body(Map.of("error", "Representative not found."));
                         }
@@ -789,25 +940,18 @@ public class ApiController {
         String token = authHeader.substring(7);
 
         try {
-            if (Authenticator.isTokenValid(token)) {
+            if (AccessToken.verify(token) != null || Authenticator.isTokenValid(token)) {
                 String query = "SELECT * FROM company WHERE company_id = ?";
 
 
-                try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+                try (Connection con = DatabaseUtils.getConnection();
                      PreparedStatement statement = con.prepareStatement(query)) {
 
                     statement.setInt(1, companyId);
 
                     try (ResultSet rs = statement.executeQuery()) {
                         if (rs.next()) {
-                            Map<String, Object> userData = new HashMap<>();
-
-                            userData.put("company_id", rs.getInt("company_id"));
-                            userData.put("name", rs.getString("name"));
-                            userData.put("champion", rs.getString("champion"));
-                            userData.put("address_id", rs.getInt("address_id"));
-
-                            return ResponseEntity.ok(userData);
+                            return ResponseEntity.ok(CompanyInfo.ROW_MAPPER.mapRow(rs));
                         } else {
                             return ResponseEntity.status(404).body(Map.of("error", "Company not found."));
                         }
@@ -832,40 +976,164 @@ public class ApiController {
         String token = authHeader.substring(7);
 
         try {
-            if (Authenticator.isTokenValid(token)) {
-                String query = "SELECT * FROM company ";
+            if (AccessToken.verify(token) != null || Authenticator.isTokenValid(token)) {
+                return ResponseEntity.ok(CompanyUtils.getCompanies());
+            } else {
+                return ResponseEntity.status(401).body(Map.of("error", "Unauthorized: Invalid or expired token."));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+        }
 
+    }
 
-                try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                     PreparedStatement statement = con.prepareStatement(query)) {
+    @GetMapping("/stats")
+    public ResponseEntity<Object> getStats(@RequestHeader("Authorization") String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
+        }
 
-                    List<Map> companies = new ArrayList<>();
-                    try (ResultSet rs = statement.executeQuery()) {
-                        while (rs.next()) {
-                            Map<String, Object> userData = new HashMap<>();
+        String token = authHeader.substring(7);
 
-                            userData.put("company_id", rs.getInt("company_id"));
-                            userData.put("name", rs.getString("name"));
-                            userData.put("champion", rs.getString("champion"));
-                            userData.put("address_id", rs.getInt("address_id"));
+        try {
+            if (Authenticator.getAccessLevel(token).equals("admin")) {
+                return ResponseEntity.ok(DashboardStats.snapshot());
+            } else {
+                return ResponseEntity.status(401).body(Map.of("error", "You are not an admin."));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+        }
+    }
 
-                            companies.add(userData);
-                        }
-                        return ResponseEntity.ok(companies);
-                    }
-                }
+    @PostMapping("/archive-year")
+    public ResponseEntity<Object> archiveYear(@RequestHeader("Authorization") String authHeader, @RequestParam int year) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
+        }
+
+        String token = authHeader.substring(7);
+
+        try {
+            if (Authenticator.getAccessLevel(token).equals("admin")) {
+                return ResponseEntity.ok(ArchiveUtils.archiveYear(year));
             } else {
-                return ResponseEntity.status(401).body(Map.of("error", "Unauthorized: Invalid or expired token."));
+                return ResponseEntity.status(401).body(Map.of("error", "You are not an admin."));
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         } catch (SQLException e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
         }
+    }
+
+    @GetMapping("/history/years")
+    public ResponseEntity<Object> getArchivedYears(@RequestHeader("Authorization") String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
+        }
 
+        String token = authHeader.substring(7);
+
+        String sql = "SELECT academic_year, COUNT(*) AS jobs, SUM(position_count) AS positions " +
+                "FROM job_archive GROUP BY academic_year ORDER BY academic_year DESC";
+
+        try {
+            if (!Authenticator.getAccessLevel(token).equals("admin")) {
+                return ResponseEntity.status(401).body(Map.of("error", "You are not an admin."));
+            }
+
+            List<Map<String, Object>> years = new ArrayList<>();
+            try (Connection connection = DatabaseUtils.getReadConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql);
+                 ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, Object> year = new LinkedHashMap<>();
+                    year.put("academic_year", rs.getInt("academic_year"));
+                    year.put("jobs", rs.getInt("jobs"));
+                    year.put("positions", rs.getInt("positions"));
+                    years.add(year);
+                }
+            }
+            return ResponseEntity.ok(years);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+        }
+    }
+
+    @GetMapping("/history/jobs")
+    public ResponseEntity<Object> getArchivedJobs(@RequestHeader("Authorization") String authHeader, @RequestParam int year,
+                                                  @RequestParam(value = "residency", required = false) String residency,
+                                                  HttpServletResponse response) throws IOException {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
+        }
+
+        String token = authHeader.substring(7);
+
+        String sql = "SELECT job_id, academic_year, company_id, company_name, job_title, small_description, salary, " +
+                "residency, residency_title, position_count, approval, post_date " +
+                "FROM job_archive WHERE academic_year = ?" + (residency == null ? "" : " AND residency = ?");
+
+        try {
+            if (!Authenticator.getAccessLevel(token).equals("admin")) {
+                return ResponseEntity.status(401).body(Map.of("error", "You are not an admin."));
+            }
+
+            try (Connection connection = DatabaseUtils.getReadConnection();
+                 PreparedStatement statement = JsonStreams.prepare(connection, sql)) {
+                statement.setInt(1, year);
+                if (residency != null) {
+                    statement.setString(2, residency);
+                }
+                JsonStreams.writeArray(response, objectMapper, statement, ArchivedJob.ROW_MAPPER);
+                return null;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+        }
+    }
+
+    @GetMapping("/history/allocations")
+    public ResponseEntity<Object> getArchivedAllocations(@RequestHeader("Authorization") String authHeader, @RequestParam int year,
+                                                         HttpServletResponse response) throws IOException {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
+        }
+
+        String token = authHeader.substring(7);
+
+        String sql = "SELECT ia.student_number, ia.job_id, ja.job_title, ja.company_name, ja.residency " +
+                "FROM interview_allocation_archive ia " +
+                "JOIN job_archive ja ON ia.job_id = ja.job_id " +
+                "WHERE ia.academic_year = ? " +
+                "ORDER BY ia.job_id, ia.student_number";
+
+        try {
+            if (!Authenticator.getAccessLevel(token).equals("admin")) {
+                return ResponseEntity.status(401).body(Map.of("error", "You are not an admin."));
+            }
+
+            try (Connection connection = DatabaseUtils.getReadConnection();
+                 PreparedStatement statement = JsonStreams.prepare(connection, sql)) {
+                statement.setInt(1, year);
+                JsonStreams.writeArray(response, objectMapper, statement, ArchivedAllocation.ROW_MAPPER);
+                return null;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+        }
     }
 
     @PostMapping("/set-preferences")
-    public ResponseEntity<Object> setPreferences(@RequestHeader("Authorization") String authHeader, @RequestBody ArrayList<StudentPreference> studentPreferences) {
+    public ResponseEntity<Object> setPreferences(@RequestHeader("Authorization") String authHeader, @RequestBody ArrayList<StudentPreference> studentPreferences,
+                                                 HttpServletRequest request) {
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
@@ -873,6 +1141,11 @@ public class ApiController {
 
         String token = authHeader.substring(7);
 
+        ResponseEntity<Object> limited = rateLimit(setPreferencesLimit, "ip:" + request.getRemoteAddr(), "session:" + token);
+        if (limited != null) {
+            return limited;
+        }
+
         try {
             if (Authenticator.isTokenValid(token)) {
                 try {
@@ -891,13 +1164,19 @@ public class ApiController {
     }
 
     @PostMapping("/create-job")
-    public ResponseEntity<Object> createJob(@RequestHeader("Authorization") String authHeader, @RequestBody JobPost job) {
+    public ResponseEntity<Object> createJob(@RequestHeader("Authorization") String authHeader, @RequestBody JobPost job,
+                                            HttpServletRequest request) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
         }
 
         String token = authHeader.substring(7);
 
+        ResponseEntity<Object> limited = rateLimit(createJobLimit, "ip:" + request.getRemoteAddr(), "session:" + token);
+        if (limited != null) {
+            return limited;
+        }
+
         String query = "INSERT INTO job " +
                 "(company_id, description, job_title, salary, small_description, " +
                 "residency, residency_title, address_id, position_count)" +
@@ -907,8 +1186,8 @@ public class ApiController {
             var company = CompanyUtils.getCompanyInfoFromUserId(Authenticator.getUserIdFromToken(token));
 
             if (Authenticator.isTokenValid(token)) {
-                try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                     PreparedStatement statement = con.prepareStatement(query)) {
+                try (Connection con = DatabaseUtils.getConnection();
+                     PreparedStatement statement = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
                     statement.setInt(1, company.id);
                     statement.setString(2, job.description);
                     statement.setString(3, job.title);
@@ -920,6 +1199,15 @@ public class ApiController {
                     statement.setInt(9, job.position_count);
 
                     statement.executeUpdate();
+                    JobUtils.invalidateCaches();
+
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            JobUtils.JobSummary created = JobUtils.getJobSummary(keys.getLong(1));
+                            JobEvents.publish(JobEvents.CREATED, created);
+                            DashboardStats.jobChanged(null, created);
+                        }
+                    }
 
                     return ResponseEntity.status(201).body(Map.of("message", "Job created successfully."));
                 } catch (SQLException e) {
@@ -969,7 +1257,9 @@ public class ApiController {
                     }
                 }
 
-                try (Connection con = DriverManager.getConnection(DatabaseUtils.url, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+                JobUtils.JobSummary before = JobUtils.getJobSummary(job.job_id);
+
+                try (Connection con = DatabaseUtils.getConnection();
                      PreparedStatement statement = con.prepareStatement(query)) {
 
                     statement.setInt(1, job.position_count);
@@ -983,6 +1273,17 @@ public class ApiController {
                     statement.setInt(9, job.job_id);
 
                     statement.executeUpdate();
+                    JobUtils.invalidateCaches();
+
+                    JobUtils.JobSummary after = JobUtils.getJobSummary(job.job_id);
+                    if (before != null && after != null && !java.util.Objects.equals(before.residency(), after.residency())) {
+                        // Whoever followed the old residency loses it
+                        JobEvents.publish(JobEvents.REMOVED, before);
+                    }
+                    boolean approvedNow = before != null && !"approved".equals(before.approval())
+                            && after != null && "approved".equals(after.approval());
+                    JobEvents.publish(approvedNow ? JobEvents.APPROVED : JobEvents.UPDATED, after);
+                    DashboardStats.jobChanged(before, after);
 
                     return ResponseEntity.status(200).body(Map.of("message", "Job updated successfully."));
                 }
@@ -995,6 +1296,44 @@ public class ApiController {
         }
     }
 
+    @PostMapping("/moderate-jobs")
+    public ResponseEntity<Object> moderateJobs(@RequestHeader("Authorization") String authHeader, @RequestBody JobModeration moderation) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
+        }
+
+        String token = authHeader.substring(7);
+
+        String approval;
+        if ("approve".equals(moderation.action)) {
+            approval = "approved";
+        } else if ("reject".equals(moderation.action)) {
+            approval = "rejected";
+        } else {
+            return ResponseEntity.status(400).body(Map.of("error", "action must be approve or reject."));
+        }
+
+        if (moderation.job_ids == null || moderation.job_ids.isEmpty() || moderation.job_ids.contains(null)) {
+            return ResponseEntity.status(400).body(Map.of("error", "job_ids must be a list of ids."));
+        }
+
+        Set<Long> jobIds = new LinkedHashSet<>(moderation.job_ids);
+        if (jobIds.size() > maxBatchJobs) {
+            return ResponseEntity.status(400).body(Map.of("error", "At most " + maxBatchJobs + " jobs per request."));
+        }
+
+        try {
+            if (Authenticator.getAccessLevel(token).equals("admin")) {
+                return ResponseEntity.ok(JobUtils.setApproval(jobIds, approval));
+            } else {
+                return ResponseEntity.status(401).body(Map.of("error", "You are not an admin."));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+        }
+    }
+
     @PostMapping("/remove-job")
     public ResponseEntity<Object> removeJob(@RequestHeader("Authorization") String authHeader, @RequestParam int job_id) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -1020,11 +1359,16 @@ public class ApiController {
                     }
                 }
 
-                try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+                JobUtils.JobSummary removed = JobUtils.getJobSummary(job_id);
+
+                try (Connection con = DatabaseUtils.getConnection();
                      PreparedStatement statement = con.prepareStatement(query)) {
                     statement.setInt(1, job_id);
 
                     statement.executeUpdate();
+                    JobUtils.invalidateCaches();
+                    JobEvents.publish(JobEvents.REMOVED, removed);
+                    DashboardStats.jobChanged(removed, null);
 
                     return ResponseEntity.status(200).body(Map.of("message", "Job deleted successfully."));
                 }
@@ -1050,170 +1394,96 @@ public class ApiController {
             if (!Authenticator.getAccessLevel(token).equals("student")) {//make sure the user is a student
                 return ResponseEntity.status(401).body(Map.of("error", "you are not a student"));
             }
-            String year = Student.getYear(token);
-            String sql;
-            List<JobToRank> userData = new ArrayList<>();
-
-            switch (residency) {
-                case "r1":
-                    if (!year.equals("1")) {
-                        return ResponseEntity.status(401).body(Map.of("error", "you don't have access to these residencies"));
-                    }
-                    sql = "SELECT j.job_title, j.job_id, " +
-                            " c.name " +
-                            "FROM job j " +
-                            "INNER JOIN company c " +
-                            "ON j.company_id = c.company_id " +
-                            "WHERE j.residency = 'r1' OR 'r1+r2' " +
-                            "AND j.approval ='approved'";
-
-                    try (Connection connection = DriverManager.getConnection(dbUrl,
-                            env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                         PreparedStatement statement = connection.prepareStatement(sql)) {
-                        try (ResultSet rs = statement.executeQuery()) {
-                            //adds all the jobs associated with the residency
-                            while (rs.next()) {
-                                JobToRank jobToRank = new JobToRank(rs.getString("job_title"), (long) rs.getInt("job_id"),
-                                        rs.getString("name"));
-                                userData.add(jobToRank);
-                            }
-                        }
+            List<String> residencies = ResidencyUtils.rankedWith(residency);
 
-                    } catch (SQLException e) {
-                        e.printStackTrace();
-                        return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
-                    }
-                    return ResponseEntity.ok(userData);
-                case "r2":
-                    if (!year.equals("1")) {
-                        return ResponseEntity.status(401).body(Map.of("error", "you don't have access to these residencies"));
-                    }
-                    sql = "SELECT j.job_title, j.job_id, " +
-                            " c.name " +
-                            "FROM job j " +
-                            "INNER JOIN company c " +
-                            "ON j.company_id = c.company_id " +
-                            "WHERE j.residency = 'r2' " +
-                            "AND j.approval ='approved'";
-
-                    try (Connection connection = DriverManager.getConnection(dbUrl,
-                            env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                         PreparedStatement statement = connection.prepareStatement(sql)) {
-                        try (ResultSet rs = statement.executeQuery()) {
-                            //adds all the jobs associated with the residency
-                            while (rs.next()) {
-                                JobToRank jobToRank = new JobToRank(rs.getString("job_title"), (long) rs.getInt("job_id"),
-                                        rs.getString("name"));
-                                userData.add(jobToRank);
-                            }
-                        }
+            if (residencies.isEmpty()) {
+                return ResponseEntity.status(401).body(Map.of("error", "residency must be enter in e.g r1"));
+            }
+            if (!Student.getYear(token).equals(ResidencyUtils.yearOf(residency))) {
+                return ResponseEntity.status(401).body(Map.of("error", "you don't have access to these residencies"));
+            }
 
-                    } catch (SQLException e) {
-                        e.printStackTrace();
-                        return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
-                    }
-                    return ResponseEntity.ok(userData);
-                case "r3":
-                    if (!year.equals("2")) {
-                        return ResponseEntity.status(401).body(Map.of("error", "you don't have access to these residencies"));
-                    }
-                    sql = "SELECT j.job_title, j.job_id, " +
-                            " c.name " +
-                            "FROM job j " +
-                            "INNER JOIN company c " +
-                            "ON j.company_id = c.company_id " +
-                            "WHERE j.residency = 'r3' " +
-                            "AND j.approval ='approved'";
-
-                    try (Connection connection = DriverManager.getConnection(dbUrl,
-                            env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                         PreparedStatement statement = connection.prepareStatement(sql)) {
-                        try (ResultSet rs = statement.executeQuery()) {
-                            //adds all the jobs associated with the residency
-                            while (rs.next()) {
-                                JobToRank jobToRank = new JobToRank(rs.getString("job_title"), (long) rs.getInt("job_id"),
-                                        rs.getString("name"));
-                                userData.add(jobToRank);
-                            }
-                        }
+            return ResponseEntity.ok(JobUtils.getJobsToRank(residencies));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+        }
 
-                    } catch (SQLException e) {
-                        e.printStackTrace();
-                        return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
-                    }
-                    return ResponseEntity.ok(userData);
-                case "r4":
-                    if (!year.equals("3")) {
-                        return ResponseEntity.status(401).body(Map.of("error", "you don't have access to these residencies"));
-                    }
-                    sql = "SELECT j.job_title, j.job_id, " +
-                            " c.name " +
-                            "FROM job j " +
-                            "INNER JOIN company c " +
-                            "ON j.company_id = c.company_id " +
-                            "WHERE j.residency = 'r4' " +
-                            "AND j.approval ='approved'";
-
-                    try (Connection connection = DriverManager.getConnection(dbUrl,
-                            env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                         PreparedStatement statement = connection.prepareStatement(sql)) {
-                        try (ResultSet rs = statement.executeQuery()) {
-                            //adds all the jobs associated with the residency
-                            while (rs.next()) {
-                                JobToRank jobToRank = new JobToRank(rs.getString("job_title"), (long) rs.getInt("job_id"),
-                                        rs.getString("name"));
-                                userData.add(jobToRank);
-                            }
-                        }
+    }
 
-                    } catch (SQLException e) {
-                        e.printStackTrace();
-                        return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
-                    }
-                    return ResponseEntity.ok(userData);
-                case "r5":
-                    if (!year.equals("4")) {
-                        return ResponseEntity.status(401).body(Map.of("error", "you don't have access to these residencies"));
-                    }
-                    sql = "SELECT j.job_title, j.job_id, " +
-                            " c.name " +
-                            "FROM job j " +
-                            "INNER JOIN company c " +
-                            "ON j.company_id = c.company_id " +
-                            "WHERE j.residency = 'r5' " +
-                            "AND j.approval ='approved'";
-
-                    try (Connection connection = DriverManager.getConnection(dbUrl,
-                            env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                         PreparedStatement statement = connection.prepareStatement(sql)) {
-                        try (ResultSet rs = statement.executeQuery()) {
-                            //adds all the jobs associated with the residency
-                            while (rs.next()) {
-                                JobToRank jobToRank = new JobToRank(rs.getString("job_title"), (long) rs.getInt("job_id"),
-                                        rs.getString("name"));
-                                userData.add(jobToRank);
-                            }
-                        }
+    @PostMapping("/allocate")
+    public ResponseEntity<Object> allocate (@RequestHeader("Authorization") String authHeader, @RequestParam String residency,
+                                            @RequestParam(required = false) String strategy){
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
+        }
 
-                    } catch (SQLException e) {
-                        e.printStackTrace();
-                        return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
-                    }
-                    return ResponseEntity.ok(userData);
-                default:
-                    return ResponseEntity.status(401).body(Map.of("error", "residency must be enter in e.g r1"));
+        String token = authHeader.substring(7);
+
+        try {
+            if (!Authenticator.getAccessLevel(token).equals("admin")) {
+                throw new SQLException("not an admin");
             }
+        } catch (SQLException e) {
+            return ResponseEntity.status(401).body(Map.of("error", "only admins can allocate"));
+        }
+        String year = ResidencyUtils.yearOf(residency);
 
+        if (year == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "please enter the residency correctly"));
+        }
 
+        try {
+            if (!InterviewAllocation.allPrefSet(year, residency)) {
+                return ResponseEntity.status(401).body(Map.of("error", "all students haven't ranked there preferences"));
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
         }
 
+        AllocationStrategy allocationStrategy = AllocationStrategy.of(strategy != null ? strategy : AllocationRunner.defaultStrategy);
+
+        if (allocationStrategy == null) {
+            return ResponseEntity.status(400).body(Map.of("error", "unknown allocation strategy"));
+        }
+
+        AllocationRun run = AllocationRunner.submit(year, residency, allocationStrategy);
+
+        if (run == null) {
+            return ResponseEntity.status(409).body(Map.of("error", "an allocation is already running for this residency"));
+        }
+
+        return ResponseEntity.status(202).body(Map.of("success", "Interview allocation started", "allocation_id", run.getId()));
     }
 
-    @PostMapping("/allocate")
-    public ResponseEntity<Object> allocate (@RequestHeader("Authorization") String authHeader, @RequestParam String residency){
+    @GetMapping("/allocation-status")
+    public ResponseEntity<Object> getAllocationStatus(@RequestHeader("Authorization") String authHeader, @RequestParam("allocation_id") String allocationId) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
+        }
+
+        String token = authHeader.substring(7);
+
+        try {
+            if (!Authenticator.getAccessLevel(token).equals("admin")) {
+                throw new SQLException("not an admin");
+            }
+        } catch (SQLException e) {
+            return ResponseEntity.status(401).body(Map.of("error", "only admins can allocate"));
+        }
+
+        AllocationRun run = AllocationRunner.get(allocationId);
+
+        if (run == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "allocation not found."));
+        }
+
+        return ResponseEntity.ok(run);
+    }
+
+    @PostMapping("/reallocate")
+    public ResponseEntity<Object> reallocate(@RequestHeader("Authorization") String authHeader, @RequestBody Reallocation reallocation) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
         }
@@ -1227,54 +1497,56 @@ public class ApiController {
         } catch (SQLException e) {
             return ResponseEntity.status(401).body(Map.of("error", "only admins can allocate"));
         }
+
+        if (reallocation.residency == null || ResidencyUtils.yearOf(reallocation.residency) == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "please enter the residency correctly"));
+        }
+
+        AllocationRun claim = AllocationRunner.claim(reallocation.residency, "backfill");
+
+        if (claim == null) {
+            return ResponseEntity.status(409).body(Map.of("error", "an allocation is already running for this residency"));
+        }
+
         try {
-            InterviewAllocation interviewsAllocations ;
-            switch(residency){
-                case "r1":
-                    interviewsAllocations = new InterviewAllocation("1", "r1");
-                    if(!interviewsAllocations.allPrefSet()){
-                        return ResponseEntity.status(401).body(Map.of("error", "all students haven't ranked there preferences"));
-                    }
-                    interviewsAllocations.allocate();
-                    break;
-                case "r2":
-                    interviewsAllocations = new InterviewAllocation("1", "r2");
-                    if(!interviewsAllocations.allPrefSet()){
-                    return ResponseEntity.status(401).body(Map.of("error", "all students haven't ranked there preferences"));
-                }
-                    interviewsAllocations.allocate();
-                    break;
-                case "r3":
-                    interviewsAllocations = new InterviewAllocation("2", "r3");
-                    if(!interviewsAllocations.allPrefSet()){
-                        return ResponseEntity.status(401).body(Map.of("error", "all students haven't ranked there preferences"));
+            InterviewBackfill backfill = new InterviewBackfill(reallocation.residency);
+            boolean found;
+
+            switch (reallocation.change == null ? "" : reallocation.change) {
+                case "student-withdrawn":
+                    if (reallocation.student_number == null) {
+                        return ResponseEntity.status(400).body(Map.of("error", "student_number is required."));
                     }
-                    interviewsAllocations.allocate();
+                    backfill.studentWithdrawn(reallocation.student_number);
+                    found = true;
                     break;
-                case "r4":
-                    interviewsAllocations = new InterviewAllocation("3", "r4");
-                    if(!interviewsAllocations.allPrefSet()){
-                        return ResponseEntity.status(401).body(Map.of("error", "all students haven't ranked there preferences"));
+                case "job-withdrawn":
+                case "positions-changed":
+                    if (reallocation.job_id == null) {
+                        return ResponseEntity.status(400).body(Map.of("error", "job_id is required."));
                     }
-                    interviewsAllocations.allocate();
+                    found = reallocation.change.equals("job-withdrawn")
+                            ? backfill.jobWithdrawn(reallocation.job_id)
+                            : backfill.positionsChanged(reallocation.job_id);
                     break;
-                case "r5":
-                    interviewsAllocations = new InterviewAllocation("4", "r5");
-                    if(!interviewsAllocations.allPrefSet()){
-                        return ResponseEntity.status(401).body(Map.of("error", "all students haven't ranked there preferences"));
-                    }
-                    interviewsAllocations.allocate();
                 default:
-                    return ResponseEntity.status(401).body(Map.of("error", "please enter the residency correctly"));
+                    return ResponseEntity.status(400).body(Map.of("error",
+                            "change must be student-withdrawn, job-withdrawn or positions-changed."));
+            }
 
+            if (!found) {
+                return ResponseEntity.status(404).body(Map.of("error", "job not found."));
             }
-            return ResponseEntity.status(200).body(Map.of("success", "Interviews Allocated successfully"));
 
-        }catch (SQLException e){
+            return ResponseEntity.ok(Map.of("released", backfill.getReleased(), "allocated", backfill.getAllocated()));
+        } catch (SQLException e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
+        } finally {
+            AllocationRunner.release(claim);
         }
     }
+
     @GetMapping("/get-allocations")
     public ResponseEntity<Object> getAllocations(@RequestHeader("Authorization") String authHeader, @RequestParam String residency){
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -1304,89 +1576,70 @@ public class ApiController {
 
 
     @GetMapping("/get-users")
-    public  ResponseEntity<Object> getUsers(@RequestHeader("Authorization") String authHeader,@RequestParam String userType){
+    public  ResponseEntity<Object> getUsers(@RequestHeader("Authorization") String authHeader, @RequestParam String userType,
+                                            @RequestParam(value = "fields", required = false) String fields,
+                                            HttpServletResponse response) throws IOException {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return ResponseEntity.status(401).body(Map.of("error", "Malformed Authorization header."));
         }
 
         String token = authHeader.substring(7);
         String sql;
-        List<Object> usersDataList = new ArrayList<>();
+        //only the fields asked for are read and sent, null means all of them
+        List<Field> projected;
 
         try {
             if (Authenticator.getAccessLevel(token).equals("admin")) {
                 //get info associated with rep users
                 switch (userType) {
                     case "admins":
-                        sql = "SELECT u.user_id, u.email, u.first_name, " +
-                                "u.last_name " +
+                        projected = AdminUser.FIELDS.select(fields);
+                        sql = "SELECT " + (projected == null ? "u.user_id, u.email, u.first_name, " +
+                                "u.last_name" : Projection.columns(projected)) + " " +
                                 "FROM users u " +
                                 "JOIN admins a ON u.user_id = a.user_id ";
-                        try (Connection connection = DriverManager.getConnection(dbUrl,
-                                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                             PreparedStatement statement = connection.prepareStatement(sql)) {
-                            try (ResultSet rs = statement.executeQuery()) {
-                                while (rs.next()) {
-                                    Map<String, Object> userData = new HashMap<>();
-                                    userData.put("userId", rs.getInt("user_id"));
-                                    userData.put("firstName", rs.getString("first_name"));
-                                    userData.put("lastName", rs.getString("last_name"));
-                                    userData.put("email", rs.getString("email"));
-                                    usersDataList.add(userData);
-
-                                }
-                                return ResponseEntity.ok(usersDataList);
-                            }
+                        try (Connection connection = DatabaseUtils.getReadConnection();
+                             PreparedStatement statement = JsonStreams.prepare(connection, sql)) {
+                            JsonStreams.writeArray(response, objectMapper, statement,
+                                    projected == null ? AdminUser.ROW_MAPPER : Projection.mapper(projected));
+                            return null;
                         } catch (SQLException e) {
                             e.printStackTrace();
                             return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
                         }
                     case "reps":
-                        sql = "SELECT u.user_id, u.email, u.first_name, " +
+                        projected = RepUser.FIELDS.select(fields);
+                        sql = "SELECT " + (projected == null ? "u.user_id, u.email, u.first_name, " +
                                 "u.last_name, r.rep_id, r.company_id, " +
-                                "c.name AS company_name " +
+                                "c.name AS company_name" : Projection.columns(projected)) + " " +
                                 "FROM users u " +
                                 "JOIN rep r ON u.user_id = r.user_id " +
                                 "JOIN company c ON r.company_id = c.company_id;";
-                        try (Connection connection = DriverManager.getConnection(dbUrl,
-                                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                             PreparedStatement statement = connection.prepareStatement(sql)) {
-                            try (ResultSet rs = statement.executeQuery()) {
-                                while (rs.next()) {
-                                    usersDataList.add(new RepUser(rs.getLong("user_id"), rs.getString("first_name"), rs.getString("last_name"),
-                                            rs.getString("email"), rs.getLong("rep_id"), rs.getLong("company_id"), rs.getString("company_name")));
-                                }
-                                return ResponseEntity.ok(usersDataList);
-                            }
+                        try (Connection connection = DatabaseUtils.getReadConnection();
+                             PreparedStatement statement = JsonStreams.prepare(connection, sql)) {
+                            JsonStreams.writeArray(response, objectMapper, statement, projected == null
+                                    ? rs -> new RepUser(rs.getLong("user_id"),
+                                            rs.getString("first_name"), rs.getString("last_name"), rs.getString("email"),
+                                            rs.getLong("rep_id"), rs.getLong("company_id"), rs.getString("company_name"))
+                                    : Projection.mapper(projected));
+                            return null;
                         } catch (SQLException e) {
                             e.printStackTrace();
                             return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
                         }
                     case "students":
-                        sql = "SELECT u.user_id, u.email, u.first_name, u.last_name, " +
+                        projected = StudentUser.FIELDS.select(fields);
+                        sql = "SELECT " + (projected == null ? "u.user_id, u.email, u.first_name, u.last_name, " +
                                 "s.student_number, s.year, s.class_rank, " +
-                                "EXISTS (SELECT 1 FROM student_preference sp WHERE sp.student_number = s.student_number) AS is_ranked " +
+                                "EXISTS (SELECT 1 FROM student_preference sp WHERE sp.student_number = s.student_number) AS is_ranked"
+                                : Projection.columns(projected)) + " " +
                                 "FROM users u " +
                                 "JOIN student s ON u.user_id = s.user_id";
-                        try (Connection connection = DriverManager.getConnection(dbUrl,
-                                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-                             PreparedStatement statement = connection.prepareStatement(sql)) {
-                            try (ResultSet rs = statement.executeQuery()) {
-                                while (rs.next()) {
-                                    Map<String, Object> userData = new HashMap<>();
-                                    userData.put("userId", rs.getInt("user_id"));
-                                    userData.put("firstName", rs.getString("first_name"));
-                                    userData.put("lastName", rs.getString("last_name"));
-                                    userData.put("email", rs.getString("email"));
-                                    userData.put("studentNumber", rs.getInt("student_number"));
-                                    userData.put("year", rs.getString("year"));
-                                    userData.put("classRank",rs.getInt("class_rank"));
-                                    userData.put("isRanked", rs.getBoolean("is_ranked"));
-                                    usersDataList.add(userData);
-                                }
-                                return ResponseEntity.ok(usersDataList);
-                            }
-
+                        try (Connection connection = DatabaseUtils.getReadConnection();
+                             PreparedStatement statement = JsonStreams.prepare(connection, sql)) {
+                            JsonStreams.writeArray(response, objectMapper, statement,
+                                    projected == null ? StudentUser.ROW_MAPPER : Projection.mapper(projected));
+                            return null;
                         } catch (SQLException e) {
                             e.printStackTrace();
                             return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
@@ -1396,6 +1649,8 @@ public class ApiController {
                 }
             } else return ResponseEntity.status(401).body(Map.of("error", "Unauthorized: Invalid or expired token."));
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
         } catch (SQLException e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "An internal server error occurred."));
@@ -1411,8 +1666,8 @@ public class ApiController {
         try {
             if (Authenticator.getAccessLevel(token).equals("admin")) {
                 String sql = "DELETE FROM users WHERE user_id = ?";
-                try (Connection connection = DriverManager.getConnection(dbUrl,
-                        env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+                DashboardStats.userDeleting(userId);
+                try (Connection connection = DatabaseUtils.getConnection();
                      PreparedStatement statement = connection.prepareStatement(sql)) {
                     statement.setInt(1, userId);
                     statement.executeUpdate();
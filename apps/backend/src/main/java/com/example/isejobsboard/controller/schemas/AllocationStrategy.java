@@ -0,0 +1,43 @@
+package com.example.isejobsboard.controller.schemas;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Decides which students interview for which jobs.
+ * <p>
+ * Implementations fill in {@code Student.interviews} and {@code Job.interviews} and must keep to the same rules:
+ * at most {@link #INTERVIEWS_PER_STUDENT} interviews per student, at most one per company for a student,
+ * and at most {@link #INTERVIEWS_PER_POSITION} students per open position of a job.
+ */
+public interface AllocationStrategy {
+    int INTERVIEWS_PER_STUDENT = 3;
+    int INTERVIEWS_PER_POSITION = 3;
+
+    /**
+     * @param studentRanking students ordered best class rank first
+     * @param jobs every job the students' preferences point at
+     * @return the number of interviews handed out
+     */
+    int assign(List<Student> studentRanking, Collection<Job> jobs);
+
+    String getName();
+
+    /**
+     * @return the strategy with that name, or null if there isn't one
+     */
+    static AllocationStrategy of(String name) {
+        switch (name) {
+            case GreedyAllocationStrategy.NAME:
+                return new GreedyAllocationStrategy();
+            case MinCostFlowStrategy.NAME:
+                return new MinCostFlowStrategy();
+            default:
+                return null;
+        }
+    }
+
+    static int capacityOf(Job job) {
+        return job.getPositionCount() * INTERVIEWS_PER_POSITION;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.isejobsboard.controller.schemas;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Single pass in class rank order, every student takes their highest preferences that still have room.
+ * Fast, but a job a top student passes over can end up empty while lower ranked students get nothing.
+ */
+public class GreedyAllocationStrategy implements AllocationStrategy {
+    public static final String NAME = "greedy";
+
+    @Override
+    public int assign(List<Student> studentRanking, Collection<Job> jobs) {
+        int allocated = 0;
+        for(Student student : studentRanking){
+            for(Job preferedJob : student.jobPreferences){
+                if (student.interviews.size() == INTERVIEWS_PER_STUDENT){
+                    break;
+                }
+                if(preferedJob.interviews.size() < AllocationStrategy.capacityOf(preferedJob) &! student.hasCompany(preferedJob)){
+                    preferedJob.interviews.add(student);
+                    student.interviews.add(preferedJob);
+                    allocated++;
+                }
+            }
+        }
+        return allocated;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
@@ -1,16 +1,16 @@
 package com.example.isejobsboard.controller.schemas;
 
 import com.example.isejobsboard.Utils.DatabaseUtils;
+import com.example.isejobsboard.Utils.FlightEvents;
+import com.example.isejobsboard.Utils.ResidencyUtils;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 public class InterviewAllocation {
-    private static final Map<String, String> env = System.getenv();
-    private static final String dbUrl = DatabaseUtils.url;
     private ArrayList<Student> studentRanking;
     private final String year;
     private HashMap<Long,Job> availableJobs;
@@ -21,6 +21,7 @@ public class InterviewAllocation {
         this.residency = residency;
         this.studentRanking = new ArrayList<>();
 
+        FlightEvents.AllocationPhase loadJobs = FlightEvents.allocationPhase(residency, "load jobs");
         try {
             switch (this.residency){
                 case "r1":
@@ -35,29 +36,45 @@ public class InterviewAllocation {
             e.printStackTrace();
             throw new SQLException();
         }
-        String sql = "SELECT student_number, class_rank " +
-                "FROM student " +
-                "WHERE year = ?";
+        loadJobs.items = availableJobs.size();
+        loadJobs.commit();
 
+        //students who withdrew from this residency aren't allocated anything
+        String sql = "SELECT s.student_number, s.class_rank " +
+                "FROM student s " +
+                "WHERE s.year = ? AND NOT EXISTS (SELECT 1 FROM allocation_withdrawal w " +
+                "WHERE w.student_number = s.student_number AND w.residency = ?)";
+
+        // student number and class rank, read in full before each student's preferences are loaded
+        ArrayList<int[]> students = new ArrayList<>();
+
+        FlightEvents.AllocationPhase loadStudents = FlightEvents.allocationPhase(residency, "load students");
         //automatic resource allocation
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             //safely set the statement
             statement.setString(1, year);
+            statement.setString(2, residency);
             try(ResultSet rs = statement.executeQuery()) {// query can fail
                 while(rs.next()){
-                    int student_number = rs.getInt("student_number");
-                    int rank = rs.getInt("class_rank");
-                    this.studentRanking.add(new Student(student_number, rank, this.availableJobs));
+                    students.add(new int[]{rs.getInt("student_number"), rs.getInt("class_rank")});
                 }
-                Collections.sort(this.studentRanking);
             }
             //if a query fails or connection fails
         } catch (SQLException e) {
             e.printStackTrace();
             throw new SQLException();
         }
+        loadStudents.items = students.size();
+        loadStudents.commit();
+
+        FlightEvents.AllocationPhase preferences = FlightEvents.allocationPhase(residency, "preferences");
+        for (int[] student : students) {
+            this.studentRanking.add(new Student(student[0], student[1], this.availableJobs));
+        }
+        Collections.sort(this.studentRanking);
+        preferences.items = studentRanking.size();
+        preferences.commit();
 //        for(Student student: studentRanking) {
 //            System.out.println(student.studentNumber);
 //            for(Job job: student.interviews){
@@ -65,39 +82,80 @@ public class InterviewAllocation {
 //            }
 //        }
     }
-    public void allocate()throws SQLException{
-        for(Student student : this.studentRanking){
-            for(Job preferedJob : student.jobPreferences){
-                if (student.interviews.size() == 3){
-                    break;
-                }
-                if(preferedJob.interviews.size() < preferedJob.getPositionCount()*3 &! student.hasCompany(preferedJob)){
-                    preferedJob.interviews.add(student);
-                    student.interviews.add(preferedJob);
-                }
-            }
+    /**
+     * Works out who interviews where. Nothing is written until {@link #save()}.
+     * @return the number of interviews handed out
+     */
+    public int allocate(AllocationStrategy strategy){
+        FlightEvents.AllocationPhase assign = FlightEvents.allocationPhase(residency, "assign");
+        int interviews = strategy.assign(this.studentRanking, this.availableJobs.values());
+        assign.items = interviews;
+        assign.commit();
+        return interviews;
+    }
+
+    /**
+     * Replaces the residency's previous allocation with this one in a single transaction,
+     * so readers never see the residency half allocated.
+     */
+    public void save()throws SQLException{
+        //every residency whose jobs the run loaded, an r1 run also hands out the r1+r2 jobs
+        List<String> residencies = ResidencyUtils.rankedWith(residency);
+        if (residencies.isEmpty()) {
+            residencies = List.of(residency);
         }
-        String sql = "INSERT INTO interview_allocation " +
+
+        String deleteSql = "DELETE ap " +
+                "FROM interview_allocation ap " +
+                "INNER JOIN job j ON ap.job_id = j.job_id " +
+                "WHERE j.residency IN (" + String.join(",", Collections.nCopies(residencies.size(), "?")) + ")";
+        String insertSql = "INSERT INTO interview_allocation " +
                 "(student_number, job_id) VALUES (?, ?)";
+        FlightEvents.AllocationPhase persist = FlightEvents.allocationPhase(residency, "persist");
         //automatic resource allocation
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            for(Student student: this.studentRanking){
-                for (Job jobInterview: student.interviews){
-                    statement.setInt(1, student.studentNumber);
-                    statement.setLong(2, jobInterview.getJobId());
-                    statement.executeUpdate();
+        try (Connection connection = DatabaseUtils.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement delete = connection.prepareStatement(deleteSql);
+                 PreparedStatement insert = connection.prepareStatement(insertSql)) {
+                for (int i = 0; i < residencies.size(); i++) {
+                    delete.setString(i + 1, residencies.get(i));
+                }
+                delete.executeUpdate();
+
+                for(Student student: this.studentRanking){
+                    for (Job jobInterview: student.interviews){
+                        insert.setInt(1, student.studentNumber);
+                        insert.setLong(2, jobInterview.getJobId());
+                        insert.addBatch();
+                    }
                 }
+                persist.items = insert.executeBatch().length;
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
             //if a query fails or connection fails
         } catch (SQLException e) {
             e.printStackTrace();
             throw new SQLException();
+        } finally {
+            persist.commit();
         }
+    }
 
+    public int getStudentCount() {
+        return studentRanking.size();
     }
-    public boolean allPrefSet()throws SQLException{
+
+    public int getJobCount() {
+        return availableJobs.size();
+    }
+
+    /**
+     * Checks every student in the year has ranked jobs for the residency.
+     */
+    public static boolean allPrefSet(String year, String residency)throws SQLException{
         String sql = "SELECT s.student_number " +
              "FROM student s " +
              "WHERE s.year = ? " +
@@ -108,10 +166,8 @@ public class InterviewAllocation {
              "WHERE j.residency = ?" +
              ")";
         //automatic resource allocation
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
-           dealocate();
             //safely set the statement
             statement.setString(1, year);
             statement.setString(2,residency);
@@ -128,25 +184,4 @@ public class InterviewAllocation {
         }
     }
 
-    public void dealocate() throws SQLException {
-        String sql = "DELETE ap " +
-                "FROM interview_allocation ap " +
-                "INNER JOIN job j ON ap.job_id = j.job_id " +
-                "WHERE j.residency = ? ";
-        //automatic resource allocation
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            //safely set the statement
-            statement.setString(1, residency);
-            statement.executeUpdate();
-            //if a query fails or connection fails
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new SQLException();
-        }
-
-
-    }
-
 }
@@ -0,0 +1,328 @@
+package com.example.isejobsboard.controller.schemas;
+
+import com.example.isejobsboard.Utils.DatabaseUtils;
+import com.example.isejobsboard.Utils.ResidencyUtils;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Patches an existing allocation after a change instead of rebuilding the whole residency.
+ * <p>
+ * Only the slots the change frees are touched. A freed job slot goes to the best ranked student who ranked the job
+ * and still has room, a student who loses an interview gets their best ranked job that still has room,
+ * both under the same rules as {@link AllocationStrategy}. Every other allocation stays as it is,
+ * and the work is a couple of queries per freed slot however big the cohort is.
+ * <p>
+ * Each change runs in one transaction.
+ */
+public class InterviewBackfill {
+    public record Slot(int studentNumber, long jobId) {}
+
+    private final String year;
+    private final String residency;
+    private final List<String> residencies;
+    private final String inResidencies;
+
+    private final List<Slot> released = new ArrayList<>();
+    private final List<Slot> allocated = new ArrayList<>();
+
+    /**
+     * @param residency a residency {@link ResidencyUtils#yearOf} knows
+     */
+    public InterviewBackfill(String residency) {
+        this.year = ResidencyUtils.yearOf(residency);
+        this.residency = residency;
+        // r1 is allocated together with the r1+r2 jobs, same as InterviewAllocation
+        this.residencies = ResidencyUtils.rankedWith(residency);
+        this.inResidencies = String.join(",", Collections.nCopies(residencies.size(), "?"));
+    }
+
+    public List<Slot> getReleased() {
+        return released;
+    }
+
+    public List<Slot> getAllocated() {
+        return allocated;
+    }
+
+    /**
+     * Records the student as withdrawn from the residency, frees every interview they hold in it and offers each one on.
+     * Later backfills and allocations of the residency leave the student out.
+     */
+    public void studentWithdrawn(int studentNumber) throws SQLException {
+        String withdrawSql = "INSERT IGNORE INTO allocation_withdrawal (student_number, residency) VALUES (?, ?)";
+        String sql = "SELECT ia.job_id " +
+                "FROM interview_allocation ia " +
+                "JOIN job j ON ia.job_id = j.job_id " +
+                "WHERE ia.student_number = ? AND j.residency IN (" + inResidencies + ")";
+
+        inTransaction(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(withdrawSql)) {
+                statement.setInt(1, studentNumber);
+                statement.setString(2, residency);
+                statement.executeUpdate();
+            }
+
+            List<Long> jobIds = new ArrayList<>();
+
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, studentNumber);
+                bindResidencies(statement, 2);
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        jobIds.add(rs.getLong("job_id"));
+                    }
+                }
+            }
+
+            for (long jobId : jobIds) {
+                release(connection, studentNumber, jobId);
+            }
+            for (long jobId : jobIds) {
+                offerJob(connection, jobId, 1);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Frees every interview for a job that was rejected or is about to be removed,
+     * and gives each of those students their next choice.
+     * @return false if the job isn't part of this residency
+     */
+    public boolean jobWithdrawn(long jobId) throws SQLException {
+        return inTransaction(connection -> {
+            if (findJob(connection, jobId) == null) {
+                return false;
+            }
+
+            List<Integer> students = allocatedStudents(connection, jobId, Integer.MAX_VALUE);
+
+            for (int studentNumber : students) {
+                release(connection, studentNumber, jobId);
+            }
+            for (int studentNumber : students) {
+                offerStudent(connection, studentNumber, jobId);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Brings a job's interviews in line with its current position_count.
+     * Fewer positions bump its worst ranked students on to their next choice, more positions are offered on.
+     * A job that is no longer approved is treated as withdrawn.
+     * @return false if the job isn't part of this residency
+     */
+    public boolean positionsChanged(long jobId) throws SQLException {
+        return inTransaction(connection -> {
+            JobSlots job = findJob(connection, jobId);
+
+            if (job == null) {
+                return false;
+            }
+
+            int capacity = job.approved ? job.positionCount * AllocationStrategy.INTERVIEWS_PER_POSITION : 0;
+
+            if (job.held > capacity) {
+                List<Integer> bumped = allocatedStudents(connection, jobId, job.held - capacity);
+
+                for (int studentNumber : bumped) {
+                    release(connection, studentNumber, jobId);
+                }
+                for (int studentNumber : bumped) {
+                    offerStudent(connection, studentNumber, jobId);
+                }
+            } else if (job.held < capacity) {
+                offerJob(connection, jobId, capacity - job.held);
+            }
+            return true;
+        });
+    }
+
+    private interface Change {
+        boolean apply(Connection connection) throws SQLException;
+    }
+
+    private boolean inTransaction(Change change) throws SQLException {
+        try (Connection connection = DatabaseUtils.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                boolean applied = change.apply(connection);
+                connection.commit();
+                return applied;
+            } catch (SQLException e) {
+                connection.rollback();
+                released.clear();
+                allocated.clear();
+                throw e;
+            }
+        }
+    }
+
+    private record JobSlots(long companyId, int positionCount, boolean approved, int held) {}
+
+    /**
+     * @return the job's company, positions and how many interviews it has now, null if it isn't in the residency
+     */
+    private JobSlots findJob(Connection connection, long jobId) throws SQLException {
+        String sql = "SELECT j.company_id, j.position_count, j.approval, " +
+                "(SELECT COUNT(*) FROM interview_allocation ia WHERE ia.job_id = j.job_id) AS held " +
+                "FROM job j " +
+                "WHERE j.job_id = ? AND j.residency IN (" + inResidencies + ")";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, jobId);
+            bindResidencies(statement, 2);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new JobSlots(rs.getLong("company_id"), rs.getInt("position_count"),
+                        "approved".equals(rs.getString("approval")), rs.getInt("held"));
+            }
+        }
+    }
+
+    /**
+     * @return up to limit students holding the job, worst class rank first
+     */
+    private List<Integer> allocatedStudents(Connection connection, long jobId, int limit) throws SQLException {
+        String sql = "SELECT ia.student_number " +
+                "FROM interview_allocation ia " +
+                "JOIN student s ON ia.student_number = s.student_number " +
+                "WHERE ia.job_id = ? " +
+                "ORDER BY s.class_rank DESC " +
+                "LIMIT ?";
+        List<Integer> students = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, jobId);
+            statement.setInt(2, limit);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    students.add(rs.getInt("student_number"));
+                }
+            }
+        }
+        return students;
+    }
+
+    private void release(Connection connection, int studentNumber, long jobId) throws SQLException {
+        String sql = "DELETE FROM interview_allocation WHERE student_number = ? AND job_id = ?";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, studentNumber);
+            statement.setLong(2, jobId);
+            statement.executeUpdate();
+        }
+        released.add(new Slot(studentNumber, jobId));
+    }
+
+    private void assign(Connection connection, int studentNumber, long jobId) throws SQLException {
+        String sql = "INSERT INTO interview_allocation (student_number, job_id) VALUES (?, ?)";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, studentNumber);
+            statement.setLong(2, jobId);
+            statement.executeUpdate();
+        }
+        allocated.add(new Slot(studentNumber, jobId));
+    }
+
+    /**
+     * Offers free slots of a job to the best ranked students who ranked it, haven't withdrawn,
+     * have fewer than the maximum interviews and none with the same company.
+     */
+    private void offerJob(Connection connection, long jobId, int slots) throws SQLException {
+        JobSlots job = findJob(connection, jobId);
+
+        if (job == null || !job.approved) {
+            return;
+        }
+
+        String sql = "SELECT sp.student_number " +
+                "FROM student_preference sp " +
+                "JOIN student s ON sp.student_number = s.student_number " +
+                "WHERE sp.job_id = ? AND s.year = ? " +
+                "AND NOT EXISTS (SELECT 1 FROM allocation_withdrawal w " +
+                "WHERE w.student_number = sp.student_number AND w.residency = ?) " +
+                "AND NOT EXISTS (SELECT 1 FROM interview_allocation ia " +
+                "JOIN job held ON ia.job_id = held.job_id " +
+                "WHERE ia.student_number = sp.student_number AND held.company_id = ?) " +
+                "AND (SELECT COUNT(*) FROM interview_allocation ia " +
+                "JOIN job held ON ia.job_id = held.job_id " +
+                "WHERE ia.student_number = sp.student_number AND held.residency IN (" + inResidencies + ")) < " +
+                AllocationStrategy.INTERVIEWS_PER_STUDENT + " " +
+                "ORDER BY s.class_rank ASC, sp.preference ASC " +
+                "LIMIT ?";
+        List<Integer> students = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, jobId);
+            statement.setString(2, year);
+            statement.setString(3, residency);
+            statement.setLong(4, job.companyId);
+            int next = bindResidencies(statement, 5);
+            statement.setInt(next, slots);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    students.add(rs.getInt("student_number"));
+                }
+            }
+        }
+
+        for (int studentNumber : students) {
+            assign(connection, studentNumber, jobId);
+        }
+    }
+
+    /**
+     * Gives a student who lost an interview their best ranked job that still has room,
+     * skipping the job they lost and companies they already interview with.
+     */
+    private void offerStudent(Connection connection, int studentNumber, long excludedJob) throws SQLException {
+        String sql = "SELECT j.job_id " +
+                "FROM student_preference sp " +
+                "JOIN job j ON sp.job_id = j.job_id " +
+                "WHERE sp.student_number = ? AND j.job_id <> ? AND j.approval = 'approved' " +
+                "AND j.residency IN (" + inResidencies + ") " +
+                "AND NOT EXISTS (SELECT 1 FROM interview_allocation ia " +
+                "JOIN job held ON ia.job_id = held.job_id " +
+                "WHERE ia.student_number = sp.student_number AND held.company_id = j.company_id) " +
+                "AND (SELECT COUNT(*) FROM interview_allocation ia WHERE ia.job_id = j.job_id) < " +
+                "j.position_count * " + AllocationStrategy.INTERVIEWS_PER_POSITION + " " +
+                "ORDER BY sp.preference ASC " +
+                "LIMIT 1";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, studentNumber);
+            statement.setLong(2, excludedJob);
+            bindResidencies(statement, 3);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    assign(connection, studentNumber, rs.getLong("job_id"));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the next free parameter index
+     */
+    private int bindResidencies(PreparedStatement statement, int first) throws SQLException {
+        int index = first;
+        for (String residency : residencies) {
+            statement.setString(index++, residency);
+        }
+        return index;
+    }
+}
@@ -1,11 +1,12 @@
 package com.example.isejobsboard.controller.schemas;
 
 import com.example.isejobsboard.Utils.DatabaseUtils;
+import com.example.isejobsboard.Utils.JobUtils;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 
 
@@ -27,8 +28,6 @@ public class Job {
     private Approval approval;
     private String salary;
     public ArrayList<Student> interviews;
-    private static final Map<String, String> env = System.getenv();
-    private static final String dbUrl = DatabaseUtils.url;
 
     public Job(Long jobId, Long companyId,
                int positionCount, String description,
@@ -105,8 +104,7 @@ public class Job {
                 "small_description, residency, "+
                 "residency_title, address_id)"+
                 "VALUES (?,?,?,?,?,?,?,?,?)";
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
 
             statement.setLong(1,job.getCompanyId());
@@ -121,6 +119,8 @@ public class Job {
 
             statement.executeUpdate();
 
+            JobUtils.invalidateCaches();
+
         }catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -132,8 +132,7 @@ public class Job {
                 "salary = ?, small_description, " +
                 "residency = ?, residency_title = ?" +
                 "WHERE job_id = ?;";
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
 
             statement.setInt(1,job.getPositionCount());
@@ -147,34 +146,22 @@ public class Job {
 
             statement.executeUpdate();
 
+            JobUtils.invalidateCaches();
+
         }catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
     public static void approveJob(long jobId){
-        String sql = "UPDATE job" +
-                "SET approval = 'approved'  " +
-                "WHERE job_id = ?";
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, jobId);
-             statement.executeUpdate();
-
+        try {
+            JobUtils.setApproval(List.of(jobId), "approved");
         }catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
     public static void rejectJob(long jobId){
-        String sql = "UPDATE job" +
-                "SET approval = 'rejected'  " +
-                "WHERE job_id = ?";
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, jobId);
-            statement.executeUpdate();
-
+        try {
+            JobUtils.setApproval(List.of(jobId), "rejected");
         }catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -182,8 +169,7 @@ public class Job {
     public  static String getResidency(int jobId) throws SQLException{
         String sql = "SELECT residency FROM job WHERE job_id = ?";
         //auto close db connection
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, jobId);
             //if query fails
@@ -219,8 +205,7 @@ public class Job {
         HashMap<Long,Job> jobsMap = new HashMap<>();
 
         //automatic resource allocation
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
 
             statement.setString(1, residency);
@@ -0,0 +1,9 @@
+package com.example.isejobsboard.controller.schemas;
+
+import java.util.List;
+
+public class JobModeration {
+    public List<Long> job_ids;
+    // "approve" or "reject"
+    public String action;
+}
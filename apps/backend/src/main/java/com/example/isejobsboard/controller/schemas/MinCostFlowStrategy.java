@@ -0,0 +1,288 @@
+package com.example.isejobsboard.controller.schemas;
+
+import java.util.*;
+
+/**
+ * Allocates as a min cost max flow problem.
+ * <p>
+ * source -> student (capacity {@link #INTERVIEWS_PER_STUDENT}) -> job (capacity 1, cost = preference position) -> sink
+ * (capacity {@link AllocationStrategy#capacityOf}). When a student ranks several jobs from one company their edges go
+ * through a shared node with capacity 1, which keeps the one interview per company rule.
+ * <p>
+ * The result hands out as many interviews as the preferences allow and, among those, puts students as high up their
+ * preferences as possible overall. Unlike the greedy pass it won't give a top student their 3rd choice if that leaves
+ * a lower ranked student with nothing, so class rank plays no part. Greedy stays the default for that reason.
+ * <p>
+ * Solved primal-dual: Dijkstra on reduced costs, then a Dinic blocking flow over the zero reduced cost edges, so each
+ * round pushes every shortest augmenting path at once. Preference positions are small, so there are few rounds.
+ */
+public class MinCostFlowStrategy implements AllocationStrategy {
+    public static final String NAME = "min-cost-flow";
+
+    private static final long INF = Long.MAX_VALUE / 4;
+
+    @Override
+    public int assign(List<Student> studentRanking, Collection<Job> jobs) {
+        Graph graph = new Graph();
+        int source = graph.addNode();
+        int sink = graph.addNode();
+
+        Map<Job, Integer> jobNodes = new IdentityHashMap<>();
+        for (Job job : jobs) {
+            int node = graph.addNode();
+            jobNodes.put(job, node);
+            graph.addEdge(node, sink, AllocationStrategy.capacityOf(job), 0);
+        }
+
+        int studentCount = studentRanking.size();
+        // student -> preference edges, in preference order
+        int[][] preferenceEdges = new int[studentCount][];
+        List<List<Job>> preferences = new ArrayList<>();
+
+        for (int s = 0; s < studentCount; s++) {
+            List<Job> ranked = distinctPreferences(studentRanking.get(s).jobPreferences, jobNodes);
+            preferences.add(ranked);
+
+            int studentNode = graph.addNode();
+            graph.addEdge(source, studentNode, INTERVIEWS_PER_STUDENT, 0);
+
+            Map<Long, Integer> jobsPerCompany = new HashMap<>();
+            for (Job job : ranked) {
+                jobsPerCompany.merge(job.getCompanyId(), 1, Integer::sum);
+            }
+
+            Map<Long, Integer> companyNodes = new HashMap<>();
+            preferenceEdges[s] = new int[ranked.size()];
+
+            for (int p = 0; p < ranked.size(); p++) {
+                Job job = ranked.get(p);
+                int from = studentNode;
+
+                if (jobsPerCompany.get(job.getCompanyId()) > 1) {
+                    from = companyNodes.computeIfAbsent(job.getCompanyId(), k -> {
+                        int node = graph.addNode();
+                        graph.addEdge(studentNode, node, 1, 0);
+                        return node;
+                    });
+                }
+
+                preferenceEdges[s][p] = graph.addEdge(from, jobNodes.get(job), 1, p);
+            }
+        }
+
+        graph.minCostMaxFlow(source, sink);
+
+        int allocated = 0;
+        for (int s = 0; s < studentCount; s++) {
+            Student student = studentRanking.get(s);
+
+            for (int p = 0; p < preferenceEdges[s].length; p++) {
+                if (graph.cap[preferenceEdges[s][p]] == 0) {
+                    Job job = preferences.get(s).get(p);
+                    student.interviews.add(job);
+                    job.interviews.add(student);
+                    allocated++;
+                }
+            }
+        }
+        return allocated;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Drops duplicates and jobs that aren't part of this allocation.
+     */
+    private static List<Job> distinctPreferences(List<Job> jobPreferences, Map<Job, Integer> jobNodes) {
+        Set<Job> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Job> ranked = new ArrayList<>();
+
+        for (Job job : jobPreferences) {
+            if (job != null && jobNodes.containsKey(job) && seen.add(job)) {
+                ranked.add(job);
+            }
+        }
+        return ranked;
+    }
+
+    /**
+     * Residual graph in flat arrays, edge e's reverse is e ^ 1.
+     */
+    private static class Graph {
+        int nodeCount = 0;
+        int edgeCount = 0;
+        int[] head = new int[64];
+        int[] next = new int[64];
+        int[] to = new int[64];
+        int[] cap = new int[64];
+        long[] cost = new long[64];
+
+        int addNode() {
+            if (nodeCount == head.length) {
+                head = Arrays.copyOf(head, nodeCount * 2);
+            }
+            head[nodeCount] = -1;
+            return nodeCount++;
+        }
+
+        int addEdge(int from, int toNode, int capacity, long edgeCost) {
+            if (edgeCount + 2 > to.length) {
+                int size = to.length * 2;
+                next = Arrays.copyOf(next, size);
+                to = Arrays.copyOf(to, size);
+                cap = Arrays.copyOf(cap, size);
+                cost = Arrays.copyOf(cost, size);
+            }
+
+            int edge = edgeCount;
+            link(from, toNode, capacity, edgeCost);
+            link(toNode, from, 0, -edgeCost);
+            return edge;
+        }
+
+        private void link(int from, int toNode, int capacity, long edgeCost) {
+            to[edgeCount] = toNode;
+            cap[edgeCount] = capacity;
+            cost[edgeCount] = edgeCost;
+            next[edgeCount] = head[from];
+            head[from] = edgeCount++;
+        }
+
+        void minCostMaxFlow(int source, int sink) {
+            // Every cost starts non negative so zero potentials are valid
+            long[] potential = new long[nodeCount];
+            long[] dist = new long[nodeCount];
+            int[] level = new int[nodeCount];
+            int[] currentEdge = new int[nodeCount];
+            int[] queue = new int[nodeCount];
+            int[] path = new int[nodeCount];
+
+            while (shortestPaths(source, sink, potential, dist)) {
+                // Nodes further than the sink move by the sink's distance, keeps every reduced cost non negative
+                for (int v = 0; v < nodeCount; v++) {
+                    potential[v] += Math.min(dist[v], dist[sink]);
+                }
+
+                while (levels(source, sink, potential, level, queue)) {
+                    System.arraycopy(head, 0, currentEdge, 0, nodeCount);
+                    blockingFlow(source, sink, potential, level, currentEdge, path);
+                }
+            }
+        }
+
+        private long reducedCost(int from, int edge, long[] potential) {
+            return cost[edge] + potential[from] - potential[to[edge]];
+        }
+
+        private boolean shortestPaths(int source, int sink, long[] potential, long[] dist) {
+            Arrays.fill(dist, INF);
+            dist[source] = 0;
+            PriorityQueue<long[]> heap = new PriorityQueue<>(Comparator.comparingLong(entry -> entry[0]));
+            heap.add(new long[]{0, source});
+
+            while (!heap.isEmpty()) {
+                long[] entry = heap.poll();
+                int u = (int) entry[1];
+
+                if (entry[0] > dist[u]) {
+                    continue;
+                }
+                if (u == sink) {
+                    // Anything not settled yet is at least as far as the sink, that's all the potentials need
+                    return true;
+                }
+
+                for (int e = head[u]; e != -1; e = next[e]) {
+                    if (cap[e] > 0) {
+                        long candidate = dist[u] + reducedCost(u, e, potential);
+
+                        if (candidate < dist[to[e]]) {
+                            dist[to[e]] = candidate;
+                            heap.add(new long[]{candidate, to[e]});
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean admissible(int u, int e, long[] potential) {
+            return cap[e] > 0 && reducedCost(u, e, potential) == 0;
+        }
+
+        private boolean levels(int source, int sink, long[] potential, int[] level, int[] queue) {
+            Arrays.fill(level, -1);
+            level[source] = 0;
+            int tail = 0;
+            queue[tail++] = source;
+
+            for (int i = 0; i < tail; i++) {
+                int u = queue[i];
+
+                for (int e = head[u]; e != -1; e = next[e]) {
+                    if (level[to[e]] < 0 && admissible(u, e, potential)) {
+                        level[to[e]] = level[u] + 1;
+                        queue[tail++] = to[e];
+                    }
+                }
+            }
+            return level[sink] >= 0;
+        }
+
+        /**
+         * Iterative so long alternating paths can't run out of stack.
+         */
+        private void blockingFlow(int source, int sink, long[] potential, int[] level, int[] currentEdge, int[] path) {
+            int depth = 0;
+            int u = source;
+
+            while (true) {
+                if (u == sink) {
+                    int pushed = Integer.MAX_VALUE;
+                    for (int i = 0; i < depth; i++) {
+                        pushed = Math.min(pushed, cap[path[i]]);
+                    }
+
+                    int firstSaturated = -1;
+                    for (int i = 0; i < depth; i++) {
+                        cap[path[i]] -= pushed;
+                        cap[path[i] ^ 1] += pushed;
+
+                        if (firstSaturated < 0 && cap[path[i]] == 0) {
+                            firstSaturated = i;
+                        }
+                    }
+
+                    depth = firstSaturated;
+                    u = to[path[depth] ^ 1];
+                    continue;
+                }
+
+                int e = currentEdge[u];
+                while (e != -1 && !(level[to[e]] == level[u] + 1 && admissible(u, e, potential))) {
+                    e = next[e];
+                }
+                currentEdge[u] = e;
+
+                if (e != -1) {
+                    path[depth++] = e;
+                    u = to[e];
+                    continue;
+                }
+
+                // Dead end, never come back here this round
+                level[u] = -1;
+                if (depth == 0) {
+                    return;
+                }
+
+                e = path[--depth];
+                u = to[e ^ 1];
+                currentEdge[u] = next[currentEdge[u]];
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.isejobsboard.controller.schemas;
+
+/**
+ * Body of {@code /reallocate}. change is one of student-withdrawn (needs student_number),
+ * job-withdrawn or positions-changed (need job_id).
+ */
+public class Reallocation {
+    public String residency;
+    public String change;
+    public Integer student_number;
+    public Long job_id;
+}
@@ -1,6 +1,21 @@
 package com.example.isejobsboard.controller.schemas;
 
+import com.example.isejobsboard.Utils.Projection;
+import com.example.isejobsboard.Utils.Projection.Field;
+
+import java.sql.ResultSet;
+
 public class RepUser extends User{
+    // Columns of users u joined with rep r and company c
+    public static final Projection FIELDS = new Projection(
+            new Field("userId", "u.user_id", ResultSet::getLong),
+            new Field("firstName", "u.first_name", ResultSet::getString),
+            new Field("lastName", "u.last_name", ResultSet::getString),
+            new Field("email", "u.email", ResultSet::getString),
+            new Field("repId", "r.rep_id", ResultSet::getLong),
+            new Field("companyId", "r.company_id", ResultSet::getLong),
+            new Field("companyName", "c.name", ResultSet::getString));
+
     public Long repId;
     public Long companyId;
     public String companyName;
@@ -1,11 +1,11 @@
 package com.example.isejobsboard.controller.schemas;
 
 import com.example.isejobsboard.Utils.DatabaseUtils;
+import com.example.isejobsboard.security.SessionToken;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Map;
 
 public class Student extends User implements Comparable<Student> {
 
@@ -16,8 +16,6 @@ public class Student extends User implements Comparable<Student> {
     public ArrayList<Job> interviews;
     public String year;
 
-    private static final Map<String, String> env = System.getenv();
-    private static final String dbUrl = DatabaseUtils.url;
 
 
     public Student(Long userId, String firstName, String lastName, String email,int studentNumber, String year) {
@@ -36,6 +34,15 @@ public class Student extends User implements Comparable<Student> {
         getStudentPreferences();
     }
 
+    // For allocation without a database, e.g. tests
+    Student(int studentNumber, int rank, ArrayList<Job> jobPreferences) {
+        super(null,null,null,null);
+        this.studentNumber = studentNumber;
+        this.rank = rank;
+        this.interviews = new ArrayList<Job>();
+        this.jobPreferences = jobPreferences;
+    }
+
     public static String getYear(String token) throws SQLException{
         //quary that looks for the year of the associated student user with the session token
         String sql = "SELECT s.year " +
@@ -44,11 +51,10 @@ public class Student extends User implements Comparable<Student> {
                 "WHERE ls.token = ? AND ls.expiry > NOW()";
 
 
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
 
-            statement.setString(1, token);
+            statement.setBytes(1, SessionToken.digest(token));
 
             try (ResultSet rs = statement.executeQuery()) {
 
@@ -64,6 +70,27 @@ public class Student extends User implements Comparable<Student> {
             throw new SQLException();
         }
     }
+    public static String getYear(int userId) throws SQLException{
+        String sql = "SELECT year FROM student WHERE user_id = ?";
+
+        try (Connection connection = DatabaseUtils.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setInt(1, userId);
+
+            try (ResultSet rs = statement.executeQuery()) {
+
+                if (rs.next()) {
+                    return rs.getString("year");
+                } else {
+                    throw new SQLException("Student doesn't exist");
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new SQLException();
+        }
+    }
     public static int getStudentNumber(String token)throws SQLException{
 
         String sql = "SELECT s.student_number " +
@@ -71,11 +98,10 @@ public class Student extends User implements Comparable<Student> {
                 "JOIN login_sessions ls ON s.user_id = ls.user_id " +
                 "WHERE ls.token = ? AND ls.expiry > NOW()";
 
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
 
-            statement.setString(1, token);
+            statement.setBytes(1, SessionToken.digest(token));
 
             try (ResultSet rs = statement.executeQuery()) {
 
@@ -103,8 +129,7 @@ public class Student extends User implements Comparable<Student> {
                 "FROM student_preference " +
                 "WHERE student_number = ? " +
                 "ORDER BY preference ASC");
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
 
             statement.setInt(1, this.studentNumber);
@@ -112,7 +137,11 @@ public class Student extends User implements Comparable<Student> {
             try (ResultSet rs = statement.executeQuery()) {//execute query
                //for  every result set the preference of each job and making references to the common job pool
                 while (rs.next()) {
-                    this.jobPreferences.add(availableJobs.get(rs.getLong("job_id")));
+                    Job job = availableJobs.get(rs.getLong("job_id"));
+                    // preferences for other residencies aren't part of this allocation
+                    if (job != null) {
+                        this.jobPreferences.add(job);
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -133,6 +162,6 @@ public class Student extends User implements Comparable<Student> {
     }
     @Override
     public int compareTo(Student other){
-        return (Integer)this.rank.compareTo(rank.compareTo(other.rank));
+        return Integer.compare(this.rank, other.rank);
     }
 }
@@ -1,17 +1,17 @@
 package com.example.isejobsboard.controller.schemas;
 
+import com.example.isejobsboard.Utils.DashboardStats;
 import com.example.isejobsboard.Utils.DatabaseUtils;
+import com.example.isejobsboard.Utils.ResidencyUtils;
 
 import java.sql.*;
 import java.util.ArrayList;
-import java.util.Map;
+import java.util.List;
 
 public class StudentPreference {
     private int jobId;
     public int preference;
 
-    private static final Map<String, String> env = System.getenv();
-    private static final String dbUrl = DatabaseUtils.url;
     public StudentPreference(int jobId, int preference){
         this.jobId = jobId;
         this.preference = preference;
@@ -22,9 +22,10 @@ public class StudentPreference {
                 "INSERT INTO `student_preference` (`student_number`, `job_id`, `preference`) VALUES (?, ?, ?)" +
                         "ON DUPLICATE KEY UPDATE " +
                         "preference = VALUES(preference);";
+        String lock_sql = "SELECT student_number FROM student WHERE student_number = ? FOR UPDATE";
+        String ranked_sql = "SELECT 1 FROM student_preference WHERE student_number = ? LIMIT 1 FOR UPDATE";
         String year;
         int studentNumber;
-        ArrayList<String> residency = new ArrayList<>();
         try {
             year = Student.getYear(token);
             studentNumber = Student.getStudentNumber(token);
@@ -37,26 +38,22 @@ public class StudentPreference {
             throw new RuntimeException(e);
         }
         //used to check the associated residency of the students year
-        switch(year){
-            case "1":
-                residency.add("r1");
-                residency.add("r2");
-                residency.add("r1+r2");
-                break;
-            case "2":
-                residency.add("r3");
-                break;
-            case "3":
-                residency.add("r4");
-                break;
-            case "4":
-                residency.add("r5");
-                break;
-        }
+        List<String> residency = ResidencyUtils.forYear(year);
 
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
+             PreparedStatement lock = connection.prepareStatement(lock_sql);
+             PreparedStatement ranked = connection.prepareStatement(ranked_sql);
              PreparedStatement statement = connection.prepareStatement(insert_sql)) {
+            // Locking the student row makes concurrent submissions take turns, so only one of them sees no preferences
+            lock.setInt(1, studentNumber);
+            lock.executeQuery().close();
+
+            ranked.setInt(1, studentNumber);
+            boolean wasRanked;
+            try (ResultSet rs = ranked.executeQuery()) {
+                wasRanked = rs.next();
+            }
+
             for(StudentPreference studentPreference: studentPreferences){
                 String jobResidency = Job.getResidency(studentPreference.jobId);
                 if(!residency.contains(jobResidency)){
@@ -70,6 +67,10 @@ public class StudentPreference {
 
             }
 
+            if (!wasRanked && !studentPreferences.isEmpty()) {
+                DashboardStats.studentRanked(year);
+            }
+
         } catch (SQLException e) {
             e.printStackTrace();
             throw new SQLException();
@@ -0,0 +1,25 @@
+package com.example.isejobsboard.model;
+
+import com.example.isejobsboard.Utils.Projection;
+import com.example.isejobsboard.Utils.Projection.Field;
+import com.example.isejobsboard.Utils.RowMapper;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.sql.ResultSet;
+
+/**
+ * An admin account, as listed by {@code /get-users?userType=admins}.
+ */
+@JsonPropertyOrder({"firstName", "lastName", "userId", "email"})
+public record AdminUser(int userId, String firstName, String lastName, String email) {
+
+    public static final RowMapper<AdminUser> ROW_MAPPER = rs -> new AdminUser(rs.getInt("user_id"),
+            rs.getString("first_name"), rs.getString("last_name"), rs.getString("email"));
+
+    // Columns of users u
+    public static final Projection FIELDS = new Projection(
+            new Field("userId", "u.user_id", ResultSet::getInt),
+            new Field("firstName", "u.first_name", ResultSet::getString),
+            new Field("lastName", "u.last_name", ResultSet::getString),
+            new Field("email", "u.email", ResultSet::getString));
+}
@@ -0,0 +1,125 @@
+package com.example.isejobsboard.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One background interview allocation for a residency, as reported by {@code /allocation-status}.
+ */
+public class AllocationRun {
+    public enum Status {
+        QUEUED,
+        LOADING,
+        ALLOCATING,
+        PERSISTING,
+        DONE,
+        FAILED
+    }
+
+    private final String id;
+    private final String residency;
+    private final String strategy;
+    private final long submittedAt;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long phaseStartedAt;
+    private volatile Long finishedAt;
+    private volatile int studentCount;
+    private volatile int jobCount;
+    private volatile int interviewsAllocated;
+    private volatile String error;
+
+    // phase name -> milliseconds spent in it, in the order the phases ran
+    private final Map<String, Long> phaseTimings = new LinkedHashMap<>();
+
+    public AllocationRun(String residency, String strategy) {
+        this.id = UUID.randomUUID().toString();
+        this.residency = residency;
+        this.strategy = strategy;
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Closes the timing of the current phase and starts the next one.
+     */
+    public synchronized void enterPhase(Status next) {
+        long now = System.currentTimeMillis();
+
+        if (status != Status.QUEUED) {
+            phaseTimings.put(status.name().toLowerCase(), now - phaseStartedAt);
+        }
+
+        if (next == Status.DONE || next == Status.FAILED) {
+            finishedAt = now;
+        }
+
+        phaseStartedAt = now;
+        status = next;
+    }
+
+    public synchronized void fail(String error) {
+        this.error = error;
+        enterPhase(Status.FAILED);
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getResidency() {
+        return residency;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public String getStatus() {
+        return status.name().toLowerCase();
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized Map<String, Long> getPhaseTimingsMs() {
+        return new LinkedHashMap<>(phaseTimings);
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public void setStudentCount(int studentCount) {
+        this.studentCount = studentCount;
+    }
+
+    public int getJobCount() {
+        return jobCount;
+    }
+
+    public void setJobCount(int jobCount) {
+        this.jobCount = jobCount;
+    }
+
+    public int getInterviewsAllocated() {
+        return interviewsAllocated;
+    }
+
+    public void setInterviewsAllocated(int interviewsAllocated) {
+        this.interviewsAllocated = interviewsAllocated;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.isejobsboard.model;
+
+import com.example.isejobsboard.Utils.RowMapper;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * An interview allocated in a closed academic year, as listed by {@code /history/allocations}.
+ */
+public record ArchivedAllocation(@JsonProperty("student_number") int studentNumber,
+                                 @JsonProperty("job_id") long jobId,
+                                 @JsonProperty("job_title") String jobTitle,
+                                 @JsonProperty("company_name") String companyName,
+                                 @JsonProperty("residency") String residency) {
+
+    public static final RowMapper<ArchivedAllocation> ROW_MAPPER = rs -> new ArchivedAllocation(
+            rs.getInt("student_number"), rs.getLong("job_id"), rs.getString("job_title"),
+            rs.getString("company_name"), rs.getString("residency"));
+}
@@ -0,0 +1,29 @@
+package com.example.isejobsboard.model;
+
+import com.example.isejobsboard.Utils.RowMapper;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.sql.Timestamp;
+
+/**
+ * A job of a closed academic year, as listed by {@code /history/jobs}.
+ */
+public record ArchivedJob(@JsonProperty("job_id") long jobId,
+                          @JsonProperty("academic_year") int academicYear,
+                          @JsonProperty("company_id") int companyId,
+                          @JsonProperty("company_name") String companyName,
+                          @JsonProperty("job_title") String jobTitle,
+                          @JsonProperty("small_description") String smallDescription,
+                          @JsonProperty("salary") int salary,
+                          @JsonProperty("residency") String residency,
+                          @JsonProperty("residency_title") String residencyTitle,
+                          @JsonProperty("position_count") int positionCount,
+                          @JsonProperty("approval") String approval,
+                          @JsonProperty("post_date") Timestamp postDate) {
+
+    public static final RowMapper<ArchivedJob> ROW_MAPPER = rs -> new ArchivedJob(rs.getLong("job_id"),
+            rs.getInt("academic_year"), rs.getInt("company_id"), rs.getString("company_name"),
+            rs.getString("job_title"), rs.getString("small_description"), rs.getInt("salary"),
+            rs.getString("residency"), rs.getString("residency_title"), rs.getInt("position_count"),
+            rs.getString("approval"), rs.getTimestamp("post_date"));
+}
@@ -0,0 +1,18 @@
+package com.example.isejobsboard.model;
+
+import com.example.isejobsboard.Utils.RowMapper;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * A company, as returned by {@code /company-info} and listed by {@code /companies}.
+ */
+@JsonPropertyOrder({"company_id", "name", "address_id", "champion"})
+public record CompanyInfo(@JsonProperty("company_id") int companyId,
+                          @JsonProperty("name") String name,
+                          @JsonProperty("champion") String champion,
+                          @JsonProperty("address_id") int addressId) {
+
+    public static final RowMapper<CompanyInfo> ROW_MAPPER = rs -> new CompanyInfo(rs.getInt("company_id"),
+            rs.getString("name"), rs.getString("champion"), rs.getInt("address_id"));
+}
@@ -6,7 +6,6 @@ import org.springframework.http.ResponseEntity;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Map;
 
 public class Interview {
     public Long studentNumber;
@@ -15,8 +14,6 @@ public class Interview {
     public Long jobId;
     public String jobTitle;
 
-    private static final Map<String, String> env = System.getenv();
-    private static final String dbUrl = DatabaseUtils.url;
 
     public Interview(Long studentNumber, String studentFirstName, String studentLastName, Long jobId, String jobTitle) {
         this.studentNumber = studentNumber;
@@ -61,8 +58,7 @@ public class Interview {
         // You'll need to establish a database connection and execute this query.
         // This example assumes you have a 'connection' object available.
 
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             try (ResultSet resultSet = statement.executeQuery()) {
 
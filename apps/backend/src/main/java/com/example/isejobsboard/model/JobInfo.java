@@ -0,0 +1,47 @@
+package com.example.isejobsboard.model;
+
+import com.example.isejobsboard.Utils.Projection;
+import com.example.isejobsboard.Utils.Projection.Field;
+import com.example.isejobsboard.Utils.RowMapper;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.sql.ResultSet;
+
+/**
+ * A job with its company's details, as returned by {@code /job}.
+ * company_id has always been sent as a string here, unlike everywhere else.
+ */
+@JsonPropertyOrder({"residency", "website", "small_description", "company_id", "position_count", "approval",
+        "company_name", "description", "salary", "job_title", "residency_title"})
+public record JobInfo(@JsonProperty("job_title") String jobTitle,
+                      @JsonProperty("residency_title") String residencyTitle,
+                      @JsonProperty("description") String description,
+                      @JsonProperty("position_count") int positionCount,
+                      @JsonProperty("company_name") String companyName,
+                      @JsonProperty("company_id") String companyId,
+                      @JsonProperty("approval") String approval,
+                      @JsonProperty("salary") float salary,
+                      @JsonProperty("website") String website,
+                      @JsonProperty("residency") String residency,
+                      @JsonProperty("small_description") String smallDescription) {
+
+    public static final RowMapper<JobInfo> ROW_MAPPER = rs -> new JobInfo(rs.getString("job_title"),
+            rs.getString("residency_title"), rs.getString("description"), rs.getInt("position_count"),
+            rs.getString("name"), rs.getString("company_id"), rs.getString("approval"), rs.getFloat("salary"),
+            rs.getString("website"), rs.getString("residency"), rs.getString("small_description"));
+
+    // Columns of job j joined with company c
+    public static final Projection FIELDS = new Projection(
+            new Field("job_title", "j.job_title", ResultSet::getString),
+            new Field("residency_title", "j.residency_title", ResultSet::getString),
+            new Field("description", "j.description", ResultSet::getString),
+            new Field("position_count", "j.position_count", ResultSet::getInt),
+            new Field("company_name", "c.name", ResultSet::getString),
+            new Field("company_id", "c.company_id", ResultSet::getString),
+            new Field("approval", "j.approval", ResultSet::getString),
+            new Field("salary", "j.salary", ResultSet::getFloat),
+            new Field("website", "c.website", ResultSet::getString),
+            new Field("residency", "j.residency", ResultSet::getString),
+            new Field("small_description", "j.small_description", ResultSet::getString));
+}
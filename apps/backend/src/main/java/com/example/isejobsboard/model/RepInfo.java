@@ -0,0 +1,17 @@
+package com.example.isejobsboard.model;
+
+import com.example.isejobsboard.Utils.RowMapper;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * A company representative's record, as returned by {@code /rep-info}.
+ */
+@JsonPropertyOrder({"rep_id", "company_id", "user_id"})
+public record RepInfo(@JsonProperty("rep_id") int repId,
+                      @JsonProperty("user_id") int userId,
+                      @JsonProperty("company_id") int companyId) {
+
+    public static final RowMapper<RepInfo> ROW_MAPPER = rs -> new RepInfo(rs.getInt("rep_id"),
+            rs.getInt("user_id"), rs.getInt("company_id"));
+}
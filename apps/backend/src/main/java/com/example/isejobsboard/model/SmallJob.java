@@ -1,8 +1,24 @@
 package com.example.isejobsboard.model;
 
+import com.example.isejobsboard.Utils.Projection;
+import com.example.isejobsboard.Utils.Projection.Field;
+
+import java.sql.ResultSet;
 import java.sql.Timestamp;
 
 public class SmallJob {
+    // Columns of job j joined with company c
+    public static final Projection FIELDS = new Projection(
+            new Field("jobId", "j.job_id", ResultSet::getLong),
+            new Field("jobTitle", "j.job_title", ResultSet::getString),
+            new Field("companyName", "c.name", ResultSet::getString),
+            new Field("smallDescription", "j.small_description", ResultSet::getString),
+            new Field("salary", "j.salary", ResultSet::getFloat),
+            new Field("residency", "j.residency", ResultSet::getString),
+            new Field("approval", "j.approval", ResultSet::getString),
+            new Field("postDate", "j.post_date", ResultSet::getTimestamp),
+            new Field("positionCount", "j.position_count", ResultSet::getInt));
+
     private Long jobId;
     private String jobTitle;
     private String companyName;
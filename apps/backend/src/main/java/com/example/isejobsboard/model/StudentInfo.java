@@ -0,0 +1,18 @@
+package com.example.isejobsboard.model;
+
+import com.example.isejobsboard.Utils.RowMapper;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * A student's record, as returned by {@code /student-info}.
+ */
+@JsonPropertyOrder({"student_number", "user_id", "year", "ranked"})
+public record StudentInfo(@JsonProperty("student_number") int studentNumber,
+                          @JsonProperty("user_id") int userId,
+                          @JsonProperty("year") int year,
+                          @JsonProperty("ranked") boolean ranked) {
+
+    public static final RowMapper<StudentInfo> ROW_MAPPER = rs -> new StudentInfo(rs.getInt("student_number"),
+            rs.getInt("user_id"), rs.getInt("year"), rs.getBoolean("ranked"));
+}
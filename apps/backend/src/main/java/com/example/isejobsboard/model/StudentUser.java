@@ -0,0 +1,35 @@
+package com.example.isejobsboard.model;
+
+import com.example.isejobsboard.Utils.Projection;
+import com.example.isejobsboard.Utils.Projection.Field;
+import com.example.isejobsboard.Utils.RowMapper;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.sql.ResultSet;
+
+/**
+ * A student account, as listed by {@code /get-users?userType=students}.
+ * year has always been sent as a string here.
+ */
+@JsonPropertyOrder({"firstName", "lastName", "year", "studentNumber", "isRanked", "userId", "email", "classRank"})
+public record StudentUser(int userId, String firstName, String lastName, String email,
+                          int studentNumber, String year, int classRank,
+                          @JsonProperty("isRanked") boolean isRanked) {
+
+    public static final RowMapper<StudentUser> ROW_MAPPER = rs -> new StudentUser(rs.getInt("user_id"),
+            rs.getString("first_name"), rs.getString("last_name"), rs.getString("email"),
+            rs.getInt("student_number"), rs.getString("year"), rs.getInt("class_rank"), rs.getBoolean("is_ranked"));
+
+    // Columns of users u joined with student s
+    public static final Projection FIELDS = new Projection(
+            new Field("userId", "u.user_id", ResultSet::getInt),
+            new Field("firstName", "u.first_name", ResultSet::getString),
+            new Field("lastName", "u.last_name", ResultSet::getString),
+            new Field("email", "u.email", ResultSet::getString),
+            new Field("studentNumber", "s.student_number", ResultSet::getInt),
+            new Field("year", "s.year", ResultSet::getString),
+            new Field("classRank", "s.class_rank", ResultSet::getInt),
+            new Field("isRanked", "EXISTS (SELECT 1 FROM student_preference sp WHERE sp.student_number = s.student_number)",
+                    ResultSet::getBoolean));
+}
@@ -0,0 +1,19 @@
+package com.example.isejobsboard.model;
+
+import com.example.isejobsboard.Utils.RowMapper;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * The caller's own account, as returned by {@code /profile}.
+ * Property order is the order the response had when it was built as a HashMap, clients may compare bodies.
+ */
+@JsonPropertyOrder({"user_id", "last_name", "first_name", "email"})
+public record UserProfile(@JsonProperty("user_id") int userId,
+                          @JsonProperty("first_name") String firstName,
+                          @JsonProperty("last_name") String lastName,
+                          @JsonProperty("email") String email) {
+
+    public static final RowMapper<UserProfile> ROW_MAPPER = rs -> new UserProfile(rs.getInt("user_id"),
+            rs.getString("first_name"), rs.getString("last_name"), rs.getString("email"));
+}
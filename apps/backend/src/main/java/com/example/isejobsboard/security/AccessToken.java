@@ -0,0 +1,154 @@
+package com.example.isejobsboard.security;
+
+import com.example.isejobsboard.Utils.FlightEvents;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Short lived, HMAC signed access tokens for read endpoints.
+ * <p>
+ * The token carries everything the read endpoints need to know about the caller, so it can be
+ * checked without touching {@code login_sessions}. The database session stays the authority:
+ * it is what {@code /access-token} exchanges for a fresh access token and what logout revokes,
+ * which means a revoked session keeps read access for at most one access token lifetime.
+ * <p>
+ * The mode is off unless {@code ACCESS_TOKEN_SECRET} holds at least 32 characters.
+ */
+public class AccessToken {
+    private static final Map<String, String> env = System.getenv();
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private static final byte[] secret = Optional.ofNullable(env.get("ACCESS_TOKEN_SECRET"))
+            .filter(s -> s.length() >= MIN_SECRET_LENGTH)
+            .map(s -> s.getBytes(StandardCharsets.UTF_8))
+            .orElse(null);
+
+    public static final long ttlSeconds = Long.parseLong(
+            Optional.ofNullable(env.get("ACCESS_TOKEN_TTL_SECONDS")).orElse("300"));
+
+    // Mac instances aren't thread safe and are slow to look up, so each thread keeps one for our key
+    private static final ThreadLocal<Mac> sharedMac = ThreadLocal.withInitial(() -> newMac(secret));
+
+    private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder decoder = Base64.getUrlDecoder();
+
+    /**
+     * What a verified access token says about its holder.
+     * @param year the student's year, null for other roles
+     * @param companyId the rep's company, 0 for other roles
+     * @param expiresAt epoch seconds
+     */
+    public record Claims(int userId, String role, String year, int companyId, long expiresAt) {
+    }
+
+    public static boolean isEnabled() {
+        return secret != null;
+    }
+
+    /**
+     * Signs a new access token that expires {@link #ttlSeconds} from now.
+     */
+    public static String issue(int userId, String role, String year, int companyId) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Access tokens are not enabled.");
+        }
+
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+
+        return sign(new Claims(userId, role, year, companyId, expiresAt), secret);
+    }
+
+    /**
+     * @param token a bearer token, either an access token or a session token
+     * @return the claims of a valid, unexpired access token, otherwise null
+     */
+    public static Claims verify(String token) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        FlightEvents.TokenResolution event = new FlightEvents.TokenResolution();
+        event.kind = "access";
+        event.begin();
+
+        Claims claims = verify(token, secret, System.currentTimeMillis() / 1000);
+
+        event.valid = claims != null;
+        event.commit();
+        return claims;
+    }
+
+    static String sign(Claims claims, byte[] key) {
+        String payload = claims.userId() + "|" + claims.role() + "|" +
+                (claims.year() == null ? "" : claims.year()) + "|" +
+                claims.companyId() + "|" + claims.expiresAt();
+
+        String encodedPayload = encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+
+        return encodedPayload + "." + encoder.encodeToString(mac(encodedPayload, key));
+    }
+
+    static Claims verify(String token, byte[] key, long nowSeconds) {
+        // Session tokens are plain base64url and never contain a dot
+        int dot = token.indexOf('.');
+
+        if (dot < 0) {
+            return null;
+        }
+
+        String encodedPayload = token.substring(0, dot);
+
+        try {
+            byte[] signature = decoder.decode(token.substring(dot + 1));
+
+            if (!MessageDigest.isEqual(signature, mac(encodedPayload, key))) {
+                return null;
+            }
+
+            String[] fields = new String(decoder.decode(encodedPayload), StandardCharsets.UTF_8).split("\\|", -1);
+
+            if (fields.length != 5) {
+                return null;
+            }
+
+            Claims claims = new Claims(
+                    Integer.parseInt(fields[0]),
+                    fields[1],
+                    fields[2].isEmpty() ? null : fields[2],
+                    Integer.parseInt(fields[3]),
+                    Long.parseLong(fields[4])
+            );
+
+            return claims.expiresAt() > nowSeconds ? claims : null;
+        } catch (IllegalArgumentException e) {
+            // Not base64 or not numbers, either way not one of ours
+            return null;
+        }
+    }
+
+    private static byte[] mac(String data, byte[] key) {
+        Mac mac = key == secret ? sharedMac.get() : newMac(key);
+
+        return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Mac newMac(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -1,18 +1,17 @@
 package com.example.isejobsboard.security;
 
 import com.example.isejobsboard.ResultSetPrinter;
+import com.example.isejobsboard.Utils.CompanyUtils;
 import com.example.isejobsboard.Utils.DatabaseUtils;
+import com.example.isejobsboard.Utils.FlightEvents;
+import com.example.isejobsboard.controller.schemas.Student;
 import org.springframework.http.ResponseEntity;
 
-import java.security.SecureRandom;
+import java.security.MessageDigest;
 import java.sql.*;
-import java.util.Base64;
 import java.util.HashMap;
-import java.util.Map;
 
 public class Authenticator {
-    private static final Map<String, String> env = System.getenv();
-    private static final String dbUrl = DatabaseUtils.url;
 
     /**
      * Creates a session token for a user in the database.
@@ -20,18 +19,18 @@ public class Authenticator {
      * @throws SQLException
      */
     public static String createToken(int userId) throws SQLException {
-        String token = _buildToken();
+        String token = SessionToken.generate();
 
         long currentTime = System.currentTimeMillis();
 
         String query = "INSERT INTO login_sessions (user_id, token, expiry) VALUES (?, ?, ?)";
 
         // Inserting our token into the database
-        try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection con = DatabaseUtils.getConnection();
              PreparedStatement statement = con.prepareStatement(query)) {
 
             statement.setInt(1, userId);
-            statement.setString(2, token);
+            statement.setBytes(2, SessionToken.digest(token));
             statement.setTimestamp(3, new Timestamp(currentTime + (3 * 60 * 60 * 1000)));
 
             statement.executeUpdate();
@@ -49,19 +48,13 @@ public class Authenticator {
      */
     public static void destroyToken(String token) throws SQLException {
         // Connecting to the database table
-        Connection tokenConnection = DriverManager.getConnection(
-                dbUrl,
-                env.get("MYSQL_USER_NAME"),
-                env.get("MYSQL_USER_PASSWORD")
-        );
+        Connection tokenConnection = DatabaseUtils.getConnection();
 
         String query = "DELETE FROM login_sessions WHERE token = ?";
 
         // Deleting our token from the database
-        try {
-            PreparedStatement tokenStatement = tokenConnection.prepareStatement(query);
-
-            tokenStatement.setString(1, token);
+        try (tokenConnection; PreparedStatement tokenStatement = tokenConnection.prepareStatement(query)) {
+            tokenStatement.setBytes(1, SessionToken.digest(token));
 
             tokenStatement.executeUpdate();
         } catch (SQLException e) {
@@ -76,18 +69,33 @@ public class Authenticator {
      * @throws SQLException
      */
     public static boolean isTokenValid(String token) throws SQLException {
-        String query = "SELECT * FROM login_sessions WHERE token = ?";
+        FlightEvents.TokenResolution event = new FlightEvents.TokenResolution();
+        event.kind = "session";
+        event.begin();
+
+        try {
+            event.valid = lookupSession(token);
+            return event.valid;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private static boolean lookupSession(String token) throws SQLException {
+        String query = "SELECT token, expiry FROM login_sessions WHERE token = ?";
 
-        try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        byte[] digest = SessionToken.digest(token);
+
+        try (Connection con = DatabaseUtils.getConnection();
         PreparedStatement statement = con.prepareStatement(query)) {
 
-            statement.setString(1, token);
+            statement.setBytes(1, digest);
 
             ResultSet rs = statement.executeQuery();
 
             while (rs.next()) {
                 if (rs.getTimestamp("expiry").after(new Timestamp(System.currentTimeMillis()))) {
-                    if (rs.getString("token").equals(token)) {
+                    if (MessageDigest.isEqual(rs.getBytes("token"), digest)) {
                         return true;
                     }
                 } else {
@@ -101,10 +109,10 @@ public class Authenticator {
 
     public static int getUserIdFromToken(String token) throws SQLException {
         // Assume token is validated when called, we're all reasonable people here
-        try (Connection con = DriverManager.getConnection(dbUrl, env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection con = DatabaseUtils.getConnection();
              PreparedStatement statement = con.prepareStatement("SELECT user_id FROM login_sessions WHERE token = ?");) {
 
-            statement.setString(1, token);
+            statement.setBytes(1, SessionToken.digest(token));
 
             ResultSet rs = statement.executeQuery();
 
@@ -116,6 +124,40 @@ public class Authenticator {
         return -1;
     }
 
+    /**
+     * Looks up what an access token needs to carry for a user and signs one.
+     * Only call this once the user's session has been checked against the database.
+     * @param userId
+     * @return the signed token, or null for a rep who isn't linked to a company
+     * @throws SQLException
+     */
+    public static String issueAccessToken(int userId) throws SQLException {
+        String role = getAccessLevel(userId);
+        String year = null;
+        int companyId = 0;
+
+        switch (role) {
+            case "student":
+                year = Student.getYear(userId);
+                break;
+            case "rep":
+                try {
+                    companyId = CompanyUtils.getCompanyInfoFromUserId(userId).id;
+                } catch (RuntimeException e) {
+                    if (!(e.getCause() instanceof SQLException cause)) {
+                        throw e;
+                    }
+                    if ("Company not found".equals(cause.getMessage())) {
+                        return null;
+                    }
+                    throw cause;
+                }
+                break;
+        }
+
+        return AccessToken.issue(userId, role, year, companyId);
+    }
+
     public static String getAccessLevel(String token) throws SQLException {
         return getAccessLevel(getUserIdFromToken(token));
     }
@@ -137,8 +179,7 @@ public class Authenticator {
             throw new SQLException("Invalid token");
         }
 
-        try (Connection connection = DriverManager.getConnection(dbUrl,
-                env.get("MYSQL_USER_NAME"), env.get("MYSQL_USER_PASSWORD"));
+        try (Connection connection = DatabaseUtils.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setString(1, userId);
@@ -169,21 +210,4 @@ public class Authenticator {
         }
         return "";
     }
-
-    /**
-     * Builds a cryptographically random token which can be used for user authentication.
-     */
-    private static String _buildToken() {
-        SecureRandom random = new SecureRandom();
-        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
-
-        byte[] tokenBytes = new byte[256];
-
-        // Filling array with cryptographically random bytes
-        random.nextBytes(tokenBytes);
-
-        String encodedTokenBytes = encoder.encodeToString(tokenBytes);
-
-        return encodedTokenBytes;
-    }
 }
@@ -0,0 +1,153 @@
+package com.example.isejobsboard.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process token bucket rate limiter, one bucket per key (client IP, email, session...).
+ * <p>
+ * Each bucket holds up to {@code RATE_LIMIT_<NAME>_BURST} tokens and refills at {@code RATE_LIMIT_<NAME>_PER_MINUTE}.
+ * Buckets are updated under one of a fixed set of striped locks, so unrelated keys don't contend.
+ * Buckets idle long enough to have refilled are evicted every minute, and at most
+ * {@code RATE_LIMIT_MAX_KEYS} (default 100000) are kept per limiter, so memory stays bounded under a spray of keys.
+ * Past that a new key is judged on a fresh bucket and not remembered.
+ * Rejections are counted in {@code rate.limit.rejections} tagged with the limiter name.
+ */
+public class RateLimiter {
+    private static final int STRIPES = 64;
+    private static final long maxKeys = Long.parseLong(
+            Optional.ofNullable(System.getenv("RATE_LIMIT_MAX_KEYS")).orElse("100000"));
+
+    private static final List<RateLimiter> limiters = new CopyOnWriteArrayList<>();
+
+    static {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        evictor.scheduleWithFixedDelay(() -> limiters.forEach(RateLimiter::evictIdle), 1, 1, TimeUnit.MINUTES);
+    }
+
+    private static class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private final String name;
+    private final double burst;
+    private final double tokensPerNano;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    private final Counter rejections;
+
+    public RateLimiter(String name, int burst, int perMinute) {
+        this.name = name;
+        this.burst = burst;
+        this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.rejections = Metrics.counter("rate.limit.rejections", "limiter", name);
+
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+
+        limiters.add(this);
+    }
+
+    /**
+     * Reads {@code RATE_LIMIT_<NAME>_BURST} and {@code RATE_LIMIT_<NAME>_PER_MINUTE}, with dashes as underscores.
+     */
+    public static RateLimiter fromEnv(String name, int defaultBurst, int defaultPerMinute) {
+        String prefix = "RATE_LIMIT_" + name.toUpperCase(Locale.ROOT).replace('-', '_');
+
+        return new RateLimiter(name,
+                Integer.parseInt(Optional.ofNullable(System.getenv(prefix + "_BURST")).orElse(String.valueOf(defaultBurst))),
+                Integer.parseInt(Optional.ofNullable(System.getenv(prefix + "_PER_MINUTE")).orElse(String.valueOf(defaultPerMinute))));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Takes a token for the key if there is one.
+     * @return 0 if the call may go ahead, otherwise the seconds until the key has a token again
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        if (key == null) {
+            key = "";
+        }
+
+        // Outside the stripe lock, eviction takes every stripe in turn
+        if (buckets.size() >= maxKeys && !buckets.containsKey(key)) {
+            evictIdle(now);
+        }
+
+        synchronized (locks[Math.floorMod(key.hashCode(), STRIPES)]) {
+            Bucket bucket = buckets.get(key);
+
+            if (bucket == null) {
+                bucket = new Bucket(burst, now);
+
+                // Still full of active keys, judge this one on a fresh bucket without keeping it
+                if (buckets.size() < maxKeys) {
+                    buckets.put(key, bucket);
+                }
+            } else {
+                bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.updatedAt) * tokensPerNano);
+                bucket.updatedAt = now;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+
+            rejections.increment();
+
+            double nanosToToken = (1 - bucket.tokens) / tokensPerNano;
+            return Math.max(1, (long) Math.ceil(nanosToToken / TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    /**
+     * Drops buckets that would be full by now, forgetting them changes nothing.
+     */
+    void evictIdle(long now) {
+        long refillNanos = (long) Math.ceil(burst / tokensPerNano);
+
+        buckets.entrySet().removeIf(entry -> {
+            synchronized (locks[Math.floorMod(entry.getKey().hashCode(), STRIPES)]) {
+                return now - entry.getValue().updatedAt >= refillNanos;
+            }
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.isejobsboard.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Issues session tokens and derives the digest that is stored in {@code login_sessions}.
+ * <p>
+ * The raw token only ever lives on the client. The database keeps the 32 byte SHA-256 of it,
+ * so the session index stays small and a copy of the table can't be replayed as a login.
+ */
+public class SessionToken {
+    // 32 random bytes is plenty for a bearer token and encodes to 43 url safe characters
+    private static final int TOKEN_BYTES = 32;
+
+    public static final int DIGEST_BYTES = 32;
+
+    // SecureRandom is thread safe, seeding a new one per login is the expensive part
+    private static final SecureRandom random = new SecureRandom();
+    private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    // MessageDigest is not thread safe, so each request thread keeps its own instance
+    private static final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
+
+    /**
+     * Builds a cryptographically random token which can be used for user authentication.
+     */
+    public static String generate() {
+        byte[] tokenBytes = new byte[TOKEN_BYTES];
+
+        // Filling array with cryptographically random bytes
+        random.nextBytes(tokenBytes);
+
+        return encoder.encodeToString(tokenBytes);
+    }
+
+    /**
+     * @param token the token as sent by the client
+     * @return the fixed width digest the session is stored under
+     */
+    public static byte[] digest(String token) {
+        return sha256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,90 @@
+-- Tables the backend queries, as they were before migrations were tracked.
+-- IF NOT EXISTS so an existing database is adopted as is (baseline-on-migrate).
+-- Deleting a user, company or job cascades to the rows hanging off it.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id    INT          NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL,
+    password   CHAR(64)     NOT NULL,
+    first_name VARCHAR(100),
+    last_name  VARCHAR(100),
+    CONSTRAINT uq_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS admins (
+    user_id INT NOT NULL PRIMARY KEY,
+    CONSTRAINT fk_admins_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS company (
+    company_id INT          NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name       VARCHAR(255) NOT NULL,
+    website    VARCHAR(255),
+    champion   VARCHAR(255),
+    address_id INT
+);
+
+CREATE TABLE IF NOT EXISTS rep (
+    rep_id     INT NOT NULL PRIMARY KEY,
+    company_id INT NOT NULL,
+    user_id    INT NOT NULL,
+    CONSTRAINT uq_rep_user UNIQUE (user_id),
+    CONSTRAINT fk_rep_company FOREIGN KEY (company_id) REFERENCES company (company_id) ON DELETE CASCADE,
+    CONSTRAINT fk_rep_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS student (
+    student_number INT NOT NULL PRIMARY KEY,
+    class_rank     INT NOT NULL,
+    user_id        INT NOT NULL,
+    year           INT NOT NULL,
+    CONSTRAINT uq_student_user UNIQUE (user_id),
+    CONSTRAINT fk_student_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS login_sessions (
+    -- SHA-256 of the session token, the token itself is never stored
+    token   BINARY(32) NOT NULL PRIMARY KEY,
+    user_id INT        NOT NULL,
+    expiry  DATETIME   NOT NULL,
+    CONSTRAINT fk_login_sessions_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS job (
+    job_id            INT          NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    company_id        INT          NOT NULL,
+    job_title         VARCHAR(255) NOT NULL,
+    description       TEXT,
+    small_description VARCHAR(1000),
+    salary            INT,
+    residency         VARCHAR(8)   NOT NULL,
+    residency_title   VARCHAR(255),
+    address_id        INT,
+    position_count    INT          NOT NULL DEFAULT 1,
+    approval          VARCHAR(16)  NOT NULL DEFAULT 'pending',
+    post_date         TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_job_company FOREIGN KEY (company_id) REFERENCES company (company_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS student_preference (
+    student_number INT NOT NULL,
+    job_id         INT NOT NULL,
+    preference     INT NOT NULL,
+    PRIMARY KEY (student_number, job_id),
+    CONSTRAINT fk_student_preference_student FOREIGN KEY (student_number) REFERENCES student (student_number) ON DELETE CASCADE,
+    CONSTRAINT fk_student_preference_job FOREIGN KEY (job_id) REFERENCES job (job_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS interview_allocation (
+    student_number INT NOT NULL,
+    job_id         INT NOT NULL,
+    PRIMARY KEY (student_number, job_id),
+    CONSTRAINT fk_interview_allocation_student FOREIGN KEY (student_number) REFERENCES student (student_number) ON DELETE CASCADE,
+    CONSTRAINT fk_interview_allocation_job FOREIGN KEY (job_id) REFERENCES job (job_id) ON DELETE CASCADE
+);
+
+-- See Utils/CacheCoherence
+CREATE TABLE IF NOT EXISTS cache_version (
+    namespace VARCHAR(64) NOT NULL PRIMARY KEY,
+    version   BIGINT      NOT NULL
+);
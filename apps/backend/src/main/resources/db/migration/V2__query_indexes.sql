@@ -0,0 +1,31 @@
+-- Secondary indexes for the predicates the backend filters and joins on.
+-- Each one is listed with the queries it serves, Utils/QueryPlans checks they are used.
+-- Lookups by primary or unique key (email, user_id, student_number + job_id) need nothing here,
+-- V4 makes sure the session token is one on adopted databases.
+
+-- Student job listings, jobs to rank and the allocation's job load:
+-- WHERE residency IN (...) AND approval = 'approved'
+CREATE INDEX idx_job_residency_approval ON job (residency, approval);
+
+-- A rep's jobs (WHERE company_id = ?), the company rule in backfills
+CREATE INDEX idx_job_company ON job (company_id);
+
+-- Students of a year in rank order for the allocation and backfills (WHERE year = ? ... class_rank),
+-- student_number comes along as the primary key so the index covers the query
+CREATE INDEX idx_student_year_rank ON student (year, class_rank);
+
+-- A student's preferences in order (WHERE student_number = ? ORDER BY preference)
+CREATE INDEX idx_student_preference_order ON student_preference (student_number, preference);
+
+-- Who ranked a job (WHERE sp.job_id = ?), backfills
+CREATE INDEX idx_student_preference_job ON student_preference (job_id);
+
+-- Interviews held on a job (COUNT(*) WHERE job_id = ?), clearing a residency's allocation by join on job
+CREATE INDEX idx_interview_allocation_job ON interview_allocation (job_id);
+
+-- Company of a rep through the join on rep.company_id
+CREATE INDEX idx_rep_company ON rep (company_id);
+
+-- A user's sessions, and expired session cleanup (WHERE expiry < NOW())
+CREATE INDEX idx_login_sessions_user ON login_sessions (user_id);
+CREATE INDEX idx_login_sessions_expiry ON login_sessions (expiry);
@@ -0,0 +1,40 @@
+-- Closed academic years, moved out of the live tables by Utils/ArchiveUtils and read by the /history endpoints.
+-- academic_year is the calendar year the academic year starts in (2024 is 2024/25).
+-- No foreign keys: archived rows outlive the companies, students and jobs they refer to,
+-- so the company name is copied rather than joined.
+
+CREATE TABLE IF NOT EXISTS job_archive (
+    job_id            INT          NOT NULL PRIMARY KEY,
+    academic_year     INT          NOT NULL,
+    company_id        INT          NOT NULL,
+    company_name      VARCHAR(255),
+    job_title         VARCHAR(255) NOT NULL,
+    description       TEXT,
+    small_description VARCHAR(1000),
+    salary            INT,
+    residency         VARCHAR(8)   NOT NULL,
+    residency_title   VARCHAR(255),
+    position_count    INT          NOT NULL,
+    approval          VARCHAR(16)  NOT NULL,
+    post_date         TIMESTAMP    NOT NULL,
+    archived_at       TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_job_archive_year (academic_year, residency)
+);
+
+CREATE TABLE IF NOT EXISTS student_preference_archive (
+    academic_year  INT NOT NULL,
+    student_number INT NOT NULL,
+    job_id         INT NOT NULL,
+    preference     INT NOT NULL,
+    PRIMARY KEY (academic_year, student_number, job_id)
+);
+
+CREATE TABLE IF NOT EXISTS interview_allocation_archive (
+    academic_year  INT NOT NULL,
+    student_number INT NOT NULL,
+    job_id         INT NOT NULL,
+    PRIMARY KEY (academic_year, job_id, student_number)
+);
+
+-- Picking out one academic year's jobs to archive (WHERE post_date >= ? AND post_date < ?)
+CREATE INDEX idx_job_post_date ON job (post_date);
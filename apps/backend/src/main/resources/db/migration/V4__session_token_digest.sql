@@ -0,0 +1,16 @@
+-- login_sessions.token holds the SHA-256 of the session token (see security/SessionToken).
+-- Databases adopted at version 0 may still have the old text column, which V1 left alone.
+-- Sessions stored before the change hold raw tokens, no lookup can match them and they don't fit the new column.
+DELETE FROM login_sessions WHERE LENGTH(token) <> 32;
+
+ALTER TABLE login_sessions MODIFY token BINARY(32) NOT NULL;
+
+-- Every request looks its session up by token, make sure that's a key lookup.
+-- The V1 table has it as its primary key, an adopted one may have none or a different one.
+SET @token_keyed = (SELECT COUNT(*) FROM information_schema.statistics
+                    WHERE table_schema = DATABASE() AND table_name = 'login_sessions'
+                      AND column_name = 'token' AND seq_in_index = 1 AND non_unique = 0);
+SET @add_key = IF(@token_keyed = 0, 'ALTER TABLE login_sessions ADD CONSTRAINT uq_login_sessions_token UNIQUE (token)', 'DO 0');
+PREPARE add_key FROM @add_key;
+EXECUTE add_key;
+DEALLOCATE PREPARE add_key;
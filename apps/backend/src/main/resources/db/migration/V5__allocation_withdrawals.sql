@@ -0,0 +1,11 @@
+-- Students who withdrew from a residency's interviews, see /reallocate.
+-- Neither a backfill nor a fresh allocation of that residency offers them anything, whatever they ranked.
+-- residency is the one the allocation runs for, r1 covers the r1+r2 jobs too.
+
+CREATE TABLE IF NOT EXISTS allocation_withdrawal (
+    student_number INT        NOT NULL,
+    residency      VARCHAR(8) NOT NULL,
+    withdrawn_at   TIMESTAMP  NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (student_number, residency),
+    CONSTRAINT fk_allocation_withdrawal_student FOREIGN KEY (student_number) REFERENCES student (student_number) ON DELETE CASCADE
+);
@@ -6,7 +6,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.sql.SQLException;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.flyway.enabled=false")
 class IseJobsBoardApplicationTests {
 
 	@Test
@@ -0,0 +1,90 @@
+package com.example.isejobsboard.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.example.isejobsboard.Utils.AdmissionControl.Priority.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String JOBS = "GET /jobs";
+
+    @Test
+    void testPriorities() {
+        assertEquals(CRITICAL, AdmissionControl.priorityOf("POST", "/login"));
+        assertEquals(CRITICAL, AdmissionControl.priorityOf("POST", "/set-preferences"));
+        assertEquals(SHEDDABLE, AdmissionControl.priorityOf("GET", "/greeting"));
+        assertEquals(SHEDDABLE, AdmissionControl.priorityOf("GET", "/jobs"));
+        assertEquals(NORMAL, AdmissionControl.priorityOf("GET", "/job"));
+        assertEquals(NORMAL, AdmissionControl.priorityOf("POST", "/create-job"));
+        assertNull(AdmissionControl.priorityOf("GET", "/jobs/stream"));
+    }
+
+    @Test
+    void testShedsLowPriorityFirst() {
+        AdmissionControl admission = new AdmissionControl(4, 1, 10, 2, 0.5, TimeUnit.SECONDS.toNanos(60));
+
+        assertTrue(admission.tryAcquire(SHEDDABLE));
+        assertTrue(admission.tryAcquire(SHEDDABLE));
+        assertFalse(admission.tryAcquire(SHEDDABLE));
+        assertTrue(admission.tryAcquire(NORMAL));
+        assertTrue(admission.tryAcquire(NORMAL));
+        assertFalse(admission.tryAcquire(NORMAL));
+        assertTrue(admission.tryAcquire(CRITICAL));
+        assertEquals(5, admission.getInFlight());
+    }
+
+    @Test
+    void testBacksOffOnSlowRequestsAndGrowsBack() {
+        AdmissionControl admission = new AdmissionControl(20, 2, 40, 2, 0.75, TimeUnit.SECONDS.toNanos(60));
+        long now = System.nanoTime();
+
+        admission.tryAcquire(NORMAL);
+        admission.release(JOBS, 5 * MS, 200, now += MS);
+        assertEquals(20, admission.getLimit());
+
+        // Slow requests finishing together cut the limit once, then again a latency later
+        for (int i = 0; i < 3; i++) {
+            admission.tryAcquire(NORMAL);
+            admission.release(JOBS, 500 * MS, 200, now += 500 * MS);
+        }
+        assertEquals(14, admission.getLimit());
+
+        admission.tryAcquire(NORMAL);
+        admission.release(JOBS, MS, 503, now + MS);
+        assertEquals(14, admission.getLimit());
+
+        // Fast requests with the limit in use grow it back
+        for (int i = 0; i < 10; i++) {
+            admission.tryAcquire(NORMAL);
+        }
+        for (int i = 0; i < 200; i++) {
+            admission.tryAcquire(NORMAL);
+            admission.release(JOBS, 5 * MS, 200, now += 5 * MS);
+        }
+        assertTrue(admission.getLimit() > 14);
+    }
+
+    @Test
+    void testFastRejectionsDontLowerTheLimit() {
+        AdmissionControl admission = new AdmissionControl(20, 2, 40, 2, 0.75, TimeUnit.SECONDS.toNanos(60));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 500; i++) {
+            admission.tryAcquire(NORMAL);
+            admission.release(JOBS, MS / 10, 401, now += MS);
+            admission.tryAcquire(NORMAL);
+            admission.release("GET /greeting", MS / 10, 200, now += MS);
+            admission.tryAcquire(NORMAL);
+            admission.release(JOBS, 20 * MS + (i % 5) * MS, 200, now += 20 * MS);
+            // Streamed and admin requests aren't measured
+            admission.tryAcquire(NORMAL);
+            admission.release(null, 2000 * MS, 200, now += MS);
+        }
+
+        assertEquals(20, admission.getLimit());
+        assertEquals(0, admission.getInFlight());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.isejobsboard.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveUtilsTest {
+
+    @Test
+    void testAcademicYearStartsInSeptember() {
+        assertEquals(LocalDateTime.of(2024, 9, 1, 0, 0), ArchiveUtils.yearStart(2024));
+    }
+
+    @Test
+    void testYearIsClosedOnceTheNextOneStarts() {
+        assertFalse(ArchiveUtils.isClosed(2024, LocalDateTime.of(2025, 8, 31, 23, 59)));
+        assertTrue(ArchiveUtils.isClosed(2024, LocalDateTime.of(2025, 9, 1, 0, 0)));
+        assertFalse(ArchiveUtils.isClosed(2025, LocalDateTime.of(2025, 9, 1, 0, 0)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.isejobsboard.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void testClassifiesRequests() {
+        assertSame(Bulkhead.AUTH, Bulkhead.forRequest("POST", "/login"));
+        assertSame(Bulkhead.ADMIN, Bulkhead.forRequest("POST", "/allocate"));
+        assertSame(Bulkhead.ADMIN, Bulkhead.forRequest("GET", "/history/jobs"));
+        assertSame(Bulkhead.BROWSE, Bulkhead.forRequest("GET", "/jobs"));
+        assertSame(Bulkhead.WRITE, Bulkhead.forRequest("POST", "/create-job"));
+        assertNull(Bulkhead.forRequest("GET", "/jobs/stream"));
+    }
+
+    @Test
+    void testRejectsWhenFullAndSetsTimeouts() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 7);
+        int[] timeout = {0};
+
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("setQueryTimeout")) {
+                        timeout[0] = (int) args[0];
+                    }
+                    return null;
+                });
+        Connection connection = Bulkhead.withQueryTimeouts((Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> method.getName().equals("prepareStatement") ? statement : null));
+
+        assertTrue(bulkhead.tryEnter(0));
+        try {
+            assertFalse(bulkhead.tryEnter(10));
+
+            connection.prepareStatement("SELECT 1");
+            assertEquals(7, timeout[0]);
+        } finally {
+            bulkhead.exit();
+        }
+
+        assertEquals(1, bulkhead.available());
+    }
+
+    @Test
+    void testNestedBulkheadSetsTheTimeoutUntilItExits() throws Exception {
+        Bulkhead outer = new Bulkhead("outer", 1, 10);
+        Bulkhead inner = new Bulkhead("inner", 1, 300);
+
+        assertTrue(outer.tryEnter(0));
+        try {
+            assertTrue(inner.tryEnter(0));
+            assertEquals(300, Bulkhead.currentTimeoutSeconds());
+            inner.exit();
+
+            assertEquals(10, Bulkhead.currentTimeoutSeconds());
+        } finally {
+            outer.exit();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.isejobsboard.Utils;
+
+import com.example.isejobsboard.Utils.JobUtils.JobSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardStatsTest {
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Long> section(DashboardStats.Counters counters, String name) {
+        return (Map<String, Long>) counters.snapshot().get(name);
+    }
+
+    @Test
+    void testPositionsOnlyCountWhileApproved() {
+        DashboardStats.Counters counters = new DashboardStats.Counters(0);
+        JobSummary pending = new JobSummary(1, "R1", 7, "pending", 3);
+        JobSummary approved = new JobSummary(1, "R1", 7, "approved", 3);
+        JobSummary moved = new JobSummary(1, "R2", 7, "approved", 5);
+
+        counters.jobChanged(null, pending);
+        assertEquals(Map.of("pending", 1L), section(counters, "jobs"));
+        assertEquals(Map.of(), section(counters, "positions"));
+
+        counters.jobChanged(pending, approved);
+        assertEquals(Map.of("pending", 0L, "approved", 1L), section(counters, "jobs"));
+        assertEquals(Map.of("R1", 3L), section(counters, "positions"));
+
+        counters.jobChanged(approved, moved);
+        assertEquals(Map.of("R1", 0L, "R2", 5L), section(counters, "positions"));
+
+        counters.jobChanged(moved, null);
+        assertEquals(Map.of("pending", 0L, "approved", 0L), section(counters, "jobs"));
+        assertEquals(Map.of("R1", 0L, "R2", 0L), section(counters, "positions"));
+    }
+
+    @Test
+    void testStudentsAreGroupedByYear() {
+        DashboardStats.Counters counters = new DashboardStats.Counters(42);
+        DashboardStats.Counters.add(counters.students, "3", 2);
+        DashboardStats.Counters.add(counters.ranked, "3", 1);
+        DashboardStats.Counters.add(counters.students, "1", 1);
+
+        Map<String, Object> snapshot = counters.snapshot();
+        assertEquals(Map.of("1", Map.of("total", 1L, "ranked", 0L), "3", Map.of("total", 2L, "ranked", 1L)),
+                snapshot.get("students"));
+        assertEquals(42L, snapshot.get("reconciled_at"));
+    }
+
+    @Test
+    void testDistanceSumsEveryDifference() {
+        DashboardStats.Counters counted = new DashboardStats.Counters(0);
+        DashboardStats.Counters.add(counted.jobs, "approved", 4);
+        DashboardStats.Counters.add(counted.students, "2", 10);
+
+        DashboardStats.Counters actual = new DashboardStats.Counters(0);
+        DashboardStats.Counters.add(actual.jobs, "approved", 3);
+        DashboardStats.Counters.add(actual.jobs, "pending", 2);
+        DashboardStats.Counters.add(actual.students, "2", 10);
+
+        assertEquals(3, counted.distanceTo(actual));
+        assertEquals(0, actual.distanceTo(actual));
+    }
+
+    @Test
+    void testChangesDuringARecountAreReplayedOntoIt() {
+        // Keeps the background recount out of the way
+        synchronized (DashboardStats.reconciling) {
+            DashboardStats.Counters old = new DashboardStats.Counters(0);
+            DashboardStats.Counters.add(old.students, "1", 5);
+            DashboardStats.swap(old);
+
+            DashboardStats.startLogging();
+            // Committed after the recount's snapshot, so only the old counters and the log see it
+            DashboardStats.apply(current -> DashboardStats.Counters.add(current.students, "1", 1));
+
+            DashboardStats.Counters fresh = new DashboardStats.Counters(1);
+            DashboardStats.Counters.add(fresh.students, "1", 5);
+            DashboardStats.swap(fresh);
+
+            assertEquals(0, old.distanceTo(fresh));
+            assertEquals(Map.of("1", Map.of("total", 6L, "ranked", 0L)), fresh.snapshot().get("students"));
+
+            DashboardStats.apply(current -> DashboardStats.Counters.add(current.students, "1", 1));
+            assertEquals(Map.of("1", Map.of("total", 7L, "ranked", 0L)), fresh.snapshot().get("students"));
+        }
+    }
+}
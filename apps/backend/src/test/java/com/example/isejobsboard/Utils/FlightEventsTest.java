@@ -0,0 +1,89 @@
+package com.example.isejobsboard.Utils;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightEventsTest {
+
+    // A connection whose statements return the given number of rows, or that count as changed by an update
+    private static Connection fakeConnection(int rows) {
+        int[] read = {0};
+
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> read[0]++ < rows;
+                    case "wasNull" -> false;
+                    default -> null;
+                });
+
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "executeQuery" -> resultSet;
+                    case "executeUpdate" -> rows;
+                    default -> null;
+                });
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) ->
+                        method.getName().equals("prepareStatement") ? statement : null);
+    }
+
+    private static List<RecordedEvent> sqlEvents(Recording recording) throws Exception {
+        Path file = Files.createTempFile("flight-events-test", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("isejobsboard.SqlStatement"))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testUntracedWithoutRecording() {
+        Connection connection = fakeConnection(1);
+        assertSame(connection, FlightEvents.traced(connection));
+    }
+
+    @Test
+    void testRecordsRowsReadAndChanged() throws Exception {
+        try (Recording recording = new Recording()) {
+            recording.enable(FlightEvents.SqlStatement.class);
+            recording.start();
+
+            try (Connection connection = FlightEvents.traced(fakeConnection(3))) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT job_id FROM job");
+                     ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        assertFalse(rs.wasNull());
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement("DELETE FROM job WHERE job_id = ?")) {
+                    statement.executeUpdate();
+                }
+            }
+
+            recording.stop();
+            List<RecordedEvent> events = sqlEvents(recording);
+
+            assertEquals(2, events.size());
+            assertEquals("SELECT job_id FROM job", events.get(0).getString("sql"));
+            assertEquals(Integer.toHexString("SELECT job_id FROM job".hashCode()), events.get(0).getString("sqlId"));
+            assertEquals(3, events.get(0).getLong("rows"));
+            assertEquals(3, events.get(1).getLong("rows"));
+        }
+    }
+}
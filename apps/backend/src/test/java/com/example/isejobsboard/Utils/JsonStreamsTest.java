@@ -0,0 +1,106 @@
+package com.example.isejobsboard.Utils;
+
+import com.example.isejobsboard.model.AdminUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JsonStreamsTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    private HttpServletResponse response() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+
+        return response;
+    }
+
+    private PreparedStatement statementOver(ResultSet rs) throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(rs);
+
+        return statement;
+    }
+
+    @Test
+    void testWritesTheSameJsonAsTheList() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getInt("user_id")).thenReturn(1, 2);
+        when(rs.getString("first_name")).thenReturn("Ada", "Alan");
+        when(rs.getString("last_name")).thenReturn("Lovelace", "Turing");
+        when(rs.getString("email")).thenReturn("ada@example.com", "alan@example.com");
+        HttpServletResponse response = response();
+
+        JsonStreams.writeArray(response, objectMapper, statementOver(rs), AdminUser.ROW_MAPPER);
+
+        String expected = objectMapper.writeValueAsString(List.of(
+                new AdminUser(1, "Ada", "Lovelace", "ada@example.com"),
+                new AdminUser(2, "Alan", "Turing", "alan@example.com")));
+        assertEquals(expected, body.toString(StandardCharsets.UTF_8));
+        verify(response).setStatus(200);
+        verify(rs).close();
+    }
+
+    @Test
+    void testEmptyResultIsAnEmptyArray() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(false);
+
+        JsonStreams.writeArray(response(), objectMapper, statementOver(rs), AdminUser.ROW_MAPPER);
+
+        assertEquals("[]", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFailureBeforeCommitResetsTheResponse() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenThrow(new SQLException("connection lost"));
+        HttpServletResponse response = response();
+        when(response.isCommitted()).thenReturn(false);
+
+        assertThrows(SQLException.class,
+                () -> JsonStreams.writeArray(response, objectMapper, statementOver(rs), AdminUser.ROW_MAPPER));
+        verify(response).resetBuffer();
+    }
+
+    @Test
+    void testFailureAfterCommitAbandonsTheResponse() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenThrow(new SQLException("connection lost"));
+        HttpServletResponse response = response();
+        when(response.isCommitted()).thenReturn(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> JsonStreams.writeArray(response, objectMapper, statementOver(rs), AdminUser.ROW_MAPPER));
+        verify(response, never()).resetBuffer();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.isejobsboard.Utils;
+
+import com.example.isejobsboard.Utils.Projection.Field;
+import com.example.isejobsboard.model.SmallJob;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectionTest {
+    private final Projection projection = new Projection(
+            new Field("jobId", "j.job_id", ResultSet::getLong),
+            new Field("jobTitle", "j.job_title", ResultSet::getString),
+            new Field("companyName", "c.name", ResultSet::getString));
+
+    private static List<String> names(List<Field> fields) {
+        return fields.stream().map(Field::name).toList();
+    }
+
+    @Test
+    void testSelectsInDeclarationOrderWithoutDuplicates() {
+        assertEquals(List.of("jobId", "companyName"), names(projection.select("companyName, jobId,companyName")));
+    }
+
+    @Test
+    void testMissingOrBlankMeansEverything() {
+        assertNull(projection.select(null));
+        assertNull(projection.select(""));
+        assertNull(projection.select(" , "));
+    }
+
+    @Test
+    void testUnknownFieldIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> projection.select("jobId,password"));
+        assertEquals("Unknown field: password", e.getMessage());
+    }
+
+    @Test
+    void testColumnsAreAliasedToFieldNames() {
+        assertEquals("j.job_id AS jobId, c.name AS companyName",
+                Projection.columns(projection.select("jobId,companyName")));
+    }
+
+    @Test
+    void testTrimKeepsOnlyRequestedFields() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        SmallJob job = new SmallJob(7L, "Engineer", "Acme", "Builds things", 3000f, "r1", null, 2);
+
+        List<Field> fields = SmallJob.FIELDS.select("jobTitle,jobId");
+
+        assertEquals("[{\"jobId\":7,\"jobTitle\":\"Engineer\"}]",
+                objectMapper.writeValueAsString(Projection.trim(objectMapper, List.of(job), fields)));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.isejobsboard.Utils;
+
+import com.example.isejobsboard.Utils.QueryPlans.PlanRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlansTest {
+
+    @Test
+    void testIndexLookupsPass() {
+        List<PlanRow> plan = List.of(
+                new PlanRow("ls", "const", "PRIMARY"),
+                new PlanRow("u", "eq_ref", "PRIMARY"),
+                new PlanRow("j", "range", "idx_job_residency_approval"));
+
+        assertTrue(QueryPlans.problems("query", plan).isEmpty());
+    }
+
+    @Test
+    void testScansAreReported() {
+        List<PlanRow> plan = List.of(
+                new PlanRow("s", "ALL", null),
+                new PlanRow("sp", "index", "PRIMARY"));
+
+        assertEquals(List.of("query: full scan of s", "query: full index scan of sp on PRIMARY"),
+                QueryPlans.problems("query", plan));
+    }
+
+    @Test
+    void testTemporaryAndTablelessRowsAreIgnored() {
+        List<PlanRow> plan = Arrays.asList(
+                new PlanRow(null, null, null),
+                new PlanRow("<union1,2,3>", "ALL", null));
+
+        assertTrue(QueryPlans.problems("query", plan).isEmpty());
+    }
+
+    @Test
+    void testEveryHotQueryHasItsParameters() {
+        for (QueryPlans.HotQuery query : QueryPlans.HOT_QUERIES) {
+            int placeholders = (int) query.sql().chars().filter(c -> c == '?').count();
+
+            assertEquals(placeholders, query.params().length, query.name());
+        }
+    }
+}
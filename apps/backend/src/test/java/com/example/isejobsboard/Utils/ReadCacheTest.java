@@ -0,0 +1,98 @@
+package com.example.isejobsboard.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadCacheTest {
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        ReadCache<String, String> cache = new ReadCache<>("test", 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ReadCache.Loader<String, String> slowLoader = key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return "value-" + key;
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(() -> cache.get("a", slowLoader)));
+            loading.await();
+
+            for (int i = 0; i < 7; i++) {
+                results.add(pool.submit(() -> cache.get("a", slowLoader)));
+            }
+            // Give the waiters time to find the load in flight
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value-a", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals("value-a", cache.get("a", key -> fail("should be cached")));
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() throws Exception {
+        ReadCache<String, String> cache = new ReadCache<>("test", 60_000);
+
+        assertThrows(SQLException.class, () -> cache.get("a", key -> {
+            throw new SQLException("down");
+        }));
+
+        assertEquals("ok", cache.get("a", key -> "ok"));
+    }
+
+    @Test
+    void testInvalidateAllForcesReload() throws Exception {
+        ReadCache<String, String> cache = new ReadCache<>("test", 60_000);
+
+        cache.get("a", key -> "old");
+        cache.invalidateAll();
+
+        assertEquals("new", cache.get("a", key -> "new"));
+    }
+
+    @Test
+    void testLoadStartedBeforeInvalidationIsNotKept() throws Exception {
+        ReadCache<String, String> cache = new ReadCache<>("test", 60_000);
+
+        assertEquals("stale", cache.get("a", key -> {
+            cache.invalidateAll();
+            return "stale";
+        }));
+
+        assertEquals("fresh", cache.get("a", key -> "fresh"));
+    }
+
+    @Test
+    void testExpiredEntryIsReloaded() throws Exception {
+        ReadCache<String, String> cache = new ReadCache<>("test", 0);
+
+        cache.get("a", key -> "first");
+
+        assertEquals("second", cache.get("a", key -> "second"));
+    }
+}
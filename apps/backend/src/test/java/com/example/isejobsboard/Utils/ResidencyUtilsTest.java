@@ -0,0 +1,44 @@
+package com.example.isejobsboard.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResidencyUtilsTest {
+    @Test
+    void testForYearFirstYearSeesBothResidencies() {
+        assertEquals(List.of("r1", "r2", "r1+r2"), ResidencyUtils.forYear("1"));
+    }
+
+    @Test
+    void testForYearLaterYears() {
+        assertEquals(List.of("r3"), ResidencyUtils.forYear("2"));
+        assertEquals(List.of("r4"), ResidencyUtils.forYear("3"));
+        assertEquals(List.of("r5"), ResidencyUtils.forYear("4"));
+    }
+
+    @Test
+    void testForYearUnknown() {
+        assertTrue(ResidencyUtils.forYear("5").isEmpty());
+        assertTrue(ResidencyUtils.forYear(null).isEmpty());
+    }
+
+    @Test
+    void testRankedWithIncludesSharedJobsInR1Only() {
+        assertEquals(List.of("r1", "r1+r2"), ResidencyUtils.rankedWith("r1"));
+        assertEquals(List.of("r2"), ResidencyUtils.rankedWith("r2"));
+        assertTrue(ResidencyUtils.rankedWith("r1+r2").isEmpty());
+    }
+
+    @Test
+    void testYearOf() {
+        assertEquals("1", ResidencyUtils.yearOf("r1"));
+        assertEquals("1", ResidencyUtils.yearOf("r2"));
+        assertEquals("2", ResidencyUtils.yearOf("r3"));
+        assertEquals("3", ResidencyUtils.yearOf("r4"));
+        assertEquals("4", ResidencyUtils.yearOf("r5"));
+        assertNull(ResidencyUtils.yearOf("r6"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.isejobsboard.Utils;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UnitOfWorkTest {
+
+    @Test
+    void testSharesOneConnectionAndCommitsAtEnd() throws Exception {
+        Connection mockConnection = mock(Connection.class);
+
+        try (MockedStatic<DriverManager> dm = mockStatic(DriverManager.class)) {
+            dm.when(() -> DriverManager.getConnection(any(), any(), any()))
+                    .thenReturn(mockConnection);
+
+            UnitOfWork.begin();
+            try (Connection first = DatabaseUtils.getConnection()) {
+                first.setAutoCommit(true);
+                first.commit();
+            }
+            Connection second = DatabaseUtils.getConnection();
+            assertSame(DatabaseUtils.getConnection(), second);
+
+            verify(mockConnection).setAutoCommit(false);
+            verify(mockConnection, never()).setAutoCommit(true);
+            verify(mockConnection, never()).commit();
+            verify(mockConnection, never()).close();
+
+            UnitOfWork.end(true);
+
+            verify(mockConnection).commit();
+            verify(mockConnection).close();
+            dm.verify(() -> DriverManager.getConnection(any(), any(), any()), times(1));
+        }
+    }
+
+    @Test
+    void testRollsBackAndDropsAfterCommitCallbacks() throws Exception {
+        Connection mockConnection = mock(Connection.class);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        try (MockedStatic<DriverManager> dm = mockStatic(DriverManager.class)) {
+            dm.when(() -> DriverManager.getConnection(any(), any(), any()))
+                    .thenReturn(mockConnection);
+
+            UnitOfWork.begin();
+            DatabaseUtils.getConnection().rollback();
+            UnitOfWork.afterCommit(() -> ran.set(true));
+            UnitOfWork.end(false);
+
+            verify(mockConnection, times(1)).rollback();
+            verify(mockConnection, never()).commit();
+            assertFalse(ran.get());
+            assertFalse(UnitOfWork.isActive());
+        }
+    }
+
+    @Test
+    void testAfterCommitRunsOnCommitOrImmediatelyWithoutUnit() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        UnitOfWork.begin();
+        UnitOfWork.afterCommit(() -> ran.set(true));
+        assertFalse(ran.get());
+        // Nothing touched the database, so there's no connection to commit
+        UnitOfWork.end(true);
+        assertTrue(ran.get());
+
+        AtomicBoolean immediate = new AtomicBoolean();
+        UnitOfWork.afterCommit(() -> immediate.set(true));
+        assertTrue(immediate.get());
+    }
+
+    @Test
+    void testConnectionsAreNotSharedWithoutUnit() throws Exception {
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+
+        try (MockedStatic<DriverManager> dm = mockStatic(DriverManager.class)) {
+            dm.when(() -> DriverManager.getConnection(any(), any(), any()))
+                    .thenReturn(first, second);
+
+            // Connections come wrapped for query timeouts, closing each reaches its own driver connection
+            DatabaseUtils.getConnection().close();
+            DatabaseUtils.getConnection().close();
+
+            verify(first).close();
+            verify(second).close();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.isejobsboard.controller;
+
+import com.example.isejobsboard.Utils.AllocationRunner;
+import com.example.isejobsboard.controller.schemas.Reallocation;
+import com.example.isejobsboard.model.AllocationRun;
+import com.example.isejobsboard.security.Authenticator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReallocateTest {
+
+    private static Reallocation jobWithdrawn(String residency, Long jobId) {
+        Reallocation reallocation = new Reallocation();
+        reallocation.residency = residency;
+        reallocation.change = "job-withdrawn";
+        reallocation.job_id = jobId;
+        return reallocation;
+    }
+
+    @Test
+    void testConflictsWithAnAllocationOfTheResidency() {
+        ApiController controller = new ApiController(null, new ObjectMapper());
+        AllocationRun running = AllocationRunner.claim("r4", "allocation");
+
+        try (MockedStatic<Authenticator> authenticator = mockStatic(Authenticator.class)) {
+            authenticator.when(() -> Authenticator.getAccessLevel("token")).thenReturn("admin");
+
+            ResponseEntity<Object> response = controller.reallocate("Bearer token", jobWithdrawn("r4", 1L));
+            assertEquals(409, response.getStatusCode().value());
+        } finally {
+            AllocationRunner.release(running);
+        }
+
+        // Released claims free the residency again
+        AllocationRun next = AllocationRunner.claim("r4", "allocation");
+        assertNotNull(next);
+        AllocationRunner.release(next);
+    }
+
+    @Test
+    void testMissingJobIdIsRejectedAndReleasesTheClaim() {
+        ApiController controller = new ApiController(null, new ObjectMapper());
+
+        try (MockedStatic<Authenticator> authenticator = mockStatic(Authenticator.class)) {
+            authenticator.when(() -> Authenticator.getAccessLevel("token")).thenReturn("admin");
+
+            ResponseEntity<Object> response = controller.reallocate("Bearer token", jobWithdrawn("r4", null));
+            assertEquals(400, response.getStatusCode().value());
+        }
+
+        AllocationRun next = AllocationRunner.claim("r4", "allocation");
+        assertNotNull(next);
+        AllocationRunner.release(next);
+    }
+}
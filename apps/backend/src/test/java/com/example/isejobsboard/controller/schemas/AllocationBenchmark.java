@@ -0,0 +1,41 @@
+package com.example.isejobsboard.controller.schemas;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Both strategies side by side on a full size residency. Timings depend on the machine, so this only runs
+ * with {@code ./gradlew benchmark}, never as part of {@code test}.
+ */
+@Tag("benchmark")
+class AllocationBenchmark {
+
+    @Test
+    void compareWithGreedy() {
+        for (AllocationStrategy strategy : List.of(new GreedyAllocationStrategy(), new MinCostFlowStrategy())) {
+            List<Job> jobs = new ArrayList<>();
+            List<Student> students = new ArrayList<>();
+            AllocationStrategyTest.generateCohort(2_000, 300, 42, jobs, students);
+
+            long start = System.nanoTime();
+            int allocated = strategy.assign(students, jobs);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            AllocationStrategyTest.assertWithinRules(students, jobs);
+
+            long emptyJobs = jobs.stream().filter(job -> job.interviews.isEmpty()).count();
+            long studentsWithNone = students.stream().filter(student -> student.interviews.isEmpty()).count();
+            double averagePreference = students.stream()
+                    .flatMap(student -> student.interviews.stream().map(job -> student.jobPreferences.indexOf(job) + 1))
+                    .mapToInt(Integer::intValue)
+                    .average()
+                    .orElse(0);
+
+            System.out.printf("%-20s %5dms  interviews=%d  students without any=%d  empty jobs=%d  avg preference=%.2f%n",
+                    strategy.getName(), elapsedMs, allocated, studentsWithNone, emptyJobs, averagePreference);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.isejobsboard.controller.schemas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationStrategyTest {
+
+    private static Student student(int rank, Job... preferences) {
+        return new Student(rank, rank, new ArrayList<>(Arrays.asList(preferences)));
+    }
+
+    static void assertWithinRules(List<Student> students, Collection<Job> jobs) {
+        for (Student student : students) {
+            assertTrue(student.interviews.size() <= AllocationStrategy.INTERVIEWS_PER_STUDENT);
+
+            Set<Long> companies = new HashSet<>();
+            for (Job job : student.interviews) {
+                assertTrue(companies.add(job.getCompanyId()), "two interviews with one company");
+            }
+        }
+        for (Job job : jobs) {
+            assertTrue(job.interviews.size() <= AllocationStrategy.capacityOf(job));
+        }
+    }
+
+    @Test
+    void testOfKnowsBothStrategies() {
+        assertTrue(AllocationStrategy.of("greedy") instanceof GreedyAllocationStrategy);
+        assertTrue(AllocationStrategy.of("min-cost-flow") instanceof MinCostFlowStrategy);
+        assertNull(AllocationStrategy.of("lottery"));
+    }
+
+    @Test
+    void testMinCostFlowCoversStudentsGreedyLeavesOut() {
+        for (AllocationStrategy strategy : List.of(new GreedyAllocationStrategy(), new MinCostFlowStrategy())) {
+            Job popular = new Job(1L, 1L, 1);
+            Job second = new Job(2L, 2L, 1);
+            Job third = new Job(3L, 3L, 1);
+            Job fourth = new Job(4L, 4L, 1);
+            List<Job> jobs = List.of(popular, second, third, fourth);
+
+            // The top 3 fill popular and stop at their quota, the 4th only wants popular
+            List<Student> students = new ArrayList<>();
+            for (int rank = 1; rank <= 3; rank++) {
+                students.add(student(rank, popular, second, third, fourth));
+            }
+            Student last = student(4, popular);
+            students.add(last);
+
+            int allocated = strategy.assign(students, jobs);
+
+            assertWithinRules(students, jobs);
+            if (strategy instanceof GreedyAllocationStrategy) {
+                assertEquals(9, allocated);
+                assertTrue(last.interviews.isEmpty());
+            } else {
+                assertEquals(10, allocated);
+                assertEquals(List.of(popular), last.interviews);
+            }
+        }
+    }
+
+    @Test
+    void testMinCostFlowKeepsOneInterviewPerCompany() {
+        Job first = new Job(1L, 10L, 1);
+        Job sameCompany = new Job(2L, 10L, 1);
+        Job otherCompany = new Job(3L, 20L, 1);
+        List<Job> jobs = List.of(first, sameCompany, otherCompany);
+
+        Student student = student(1, first, sameCompany, otherCompany);
+
+        int allocated = new MinCostFlowStrategy().assign(List.of(student), jobs);
+
+        assertEquals(2, allocated);
+        assertEquals(List.of(first, otherCompany), student.interviews);
+    }
+
+    @Test
+    void testMinCostFlowGivesHigherPreferencesWhenCountIsEqual() {
+        Job a = new Job(1L, 1L, 1);
+        Job b = new Job(2L, 2L, 1);
+        Job c = new Job(3L, 3L, 1);
+        Job d = new Job(4L, 4L, 1);
+        List<Job> jobs = List.of(a, b, c, d);
+
+        Student student = student(1, a, b, c, d);
+
+        new MinCostFlowStrategy().assign(List.of(student), jobs);
+
+        assertEquals(List.of(a, b, c), student.interviews);
+    }
+
+    @Test
+    void testMinCostFlowIgnoresDuplicateAndMissingPreferences() {
+        Job job = new Job(1L, 1L, 1);
+        Job elsewhere = new Job(2L, 2L, 1);
+        Student student = student(1, job, null, job, elsewhere);
+
+        int allocated = new MinCostFlowStrategy().assign(List.of(student), List.of(job));
+
+        assertEquals(1, allocated);
+        assertEquals(List.of(job), student.interviews);
+    }
+
+    @Test
+    void testFullSizeCohortStaysWithinRules() {
+        for (AllocationStrategy strategy : List.of(new GreedyAllocationStrategy(), new MinCostFlowStrategy())) {
+            List<Job> jobs = new ArrayList<>();
+            List<Student> students = new ArrayList<>();
+            generateCohort(2_000, 300, 42, jobs, students);
+
+            strategy.assign(students, jobs);
+
+            assertWithinRules(students, jobs);
+        }
+    }
+
+    /**
+     * Skewed popularity so a handful of jobs are oversubscribed, about 3 jobs per company.
+     */
+    static void generateCohort(int studentCount, int jobCount, long seed, List<Job> jobs, List<Student> students) {
+        Random random = new Random(seed);
+
+        for (int j = 0; j < jobCount; j++) {
+            jobs.add(new Job((long) j, (long) j / 3, 1 + random.nextInt(3)));
+        }
+
+        for (int s = 0; s < studentCount; s++) {
+            LinkedHashSet<Job> preferences = new LinkedHashSet<>();
+            int wanted = 10 + random.nextInt(21);
+
+            while (preferences.size() < wanted) {
+                double skew = random.nextDouble();
+                preferences.add(jobs.get((int) (skew * skew * jobCount)));
+            }
+
+            students.add(new Student(s, s + 1, new ArrayList<>(preferences)));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.isejobsboard.controller.schemas;
+
+import com.example.isejobsboard.Utils.DatabaseUtils;
+import com.example.isejobsboard.controller.schemas.InterviewBackfill.Slot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the backfill's queries against an in-memory H2 database in MySQL mode, with just the columns they touch.
+ */
+class InterviewBackfillTest {
+    private static final String URL = "jdbc:h2:mem:backfill;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR";
+
+    private String previousUrl;
+
+    @BeforeEach
+    void createSchema() throws SQLException {
+        previousUrl = DatabaseUtils.url;
+        DatabaseUtils.url = URL;
+
+        execute("DROP ALL OBJECTS");
+        execute("CREATE TABLE student (student_number INT PRIMARY KEY, class_rank INT NOT NULL, year INT NOT NULL)");
+        execute("CREATE TABLE job (job_id INT PRIMARY KEY, company_id INT NOT NULL, position_count INT NOT NULL, " +
+                "approval VARCHAR(16) NOT NULL, residency VARCHAR(8) NOT NULL)");
+        execute("CREATE TABLE student_preference (student_number INT, job_id INT, preference INT, " +
+                "PRIMARY KEY (student_number, job_id))");
+        execute("CREATE TABLE interview_allocation (student_number INT, job_id INT, PRIMARY KEY (student_number, job_id))");
+        execute("CREATE TABLE allocation_withdrawal (student_number INT, residency VARCHAR(8), " +
+                "withdrawn_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY (student_number, residency))");
+
+        // Job 10 (company 1) is full with students 1, 2 and 3
+        job(10, 1, 1);
+        job(11, 2, 1);
+        job(12, 1, 1);
+        job(13, 3, 1);
+        job(14, 4, 1);
+        job(15, 5, 1);
+
+        student(1, 5, 10, 11);
+        student(2, 6, 10);
+        student(3, 7, 10);
+        // Best ranked but already at three interviews
+        student(4, 1, 13, 14, 15, 10);
+        // Next best but already interviews with company 1
+        student(5, 2, 12, 10);
+        student(6, 3, 11, 10);
+        student(7, 4, 10, 11);
+
+        allocate(1, 10);
+        allocate(2, 10);
+        allocate(3, 10);
+        allocate(4, 13);
+        allocate(4, 14);
+        allocate(4, 15);
+        allocate(5, 12);
+    }
+
+    @AfterEach
+    void restoreUrl() {
+        DatabaseUtils.url = previousUrl;
+    }
+
+    private static void execute(String sql, Object... params) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL);
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            statement.execute();
+        }
+    }
+
+    private static void job(int jobId, int companyId, int positions) throws SQLException {
+        execute("INSERT INTO job VALUES (?, ?, ?, 'approved', 'r2')", jobId, companyId, positions);
+    }
+
+    private static void student(int studentNumber, int rank, int... preferences) throws SQLException {
+        execute("INSERT INTO student VALUES (?, ?, 1)", studentNumber, rank);
+        for (int i = 0; i < preferences.length; i++) {
+            execute("INSERT INTO student_preference VALUES (?, ?, ?)", studentNumber, preferences[i], i + 1);
+        }
+    }
+
+    private static void allocate(int studentNumber, int jobId) throws SQLException {
+        execute("INSERT INTO interview_allocation VALUES (?, ?)", studentNumber, jobId);
+    }
+
+    private static Set<Slot> allocations() throws SQLException {
+        Set<Slot> slots = new HashSet<>();
+
+        try (Connection connection = DriverManager.getConnection(URL);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT student_number, job_id FROM interview_allocation")) {
+            while (rs.next()) {
+                slots.add(new Slot(rs.getInt("student_number"), rs.getLong("job_id")));
+            }
+        }
+        return slots;
+    }
+
+    @Test
+    void testFreedSlotGoesToTheBestRankedEligibleStudent() throws SQLException {
+        Set<Slot> before = allocations();
+
+        InterviewBackfill backfill = new InterviewBackfill("r2");
+        backfill.studentWithdrawn(1);
+
+        // 4 is at the cap and 5 already interviews with company 1, so 6 is next in class rank
+        assertEquals(List.of(new Slot(1, 10)), backfill.getReleased());
+        assertEquals(List.of(new Slot(6, 10)), backfill.getAllocated());
+
+        // Every allocation the withdrawal didn't touch stays as it was
+        Set<Slot> expected = new HashSet<>(before);
+        expected.remove(new Slot(1, 10));
+        expected.add(new Slot(6, 10));
+        assertEquals(expected, allocations());
+    }
+
+    @Test
+    void testWithdrawnStudentsAreLeftOutOfLaterBackfills() throws SQLException {
+        new InterviewBackfill("r2").studentWithdrawn(1);
+
+        // Student 1 ranked job 11 first, and would be best ranked for it if they hadn't withdrawn
+        InterviewBackfill backfill = new InterviewBackfill("r2");
+        assertTrue(backfill.positionsChanged(11));
+
+        // Three interviews per position, among those who ranked it and have room: 6 and 7
+        assertEquals(List.of(new Slot(6, 11), new Slot(7, 11)), backfill.getAllocated());
+        assertFalse(allocations().stream().anyMatch(slot -> slot.studentNumber() == 1));
+    }
+
+    @Test
+    void testWithdrawnJobMovesItsStudentsOnByPreference() throws SQLException {
+        InterviewBackfill backfill = new InterviewBackfill("r2");
+        assertTrue(backfill.jobWithdrawn(13));
+
+        // Student 4 drops to two interviews, and their only other choice left is the full job 10
+        assertEquals(List.of(new Slot(4, 13)), backfill.getReleased());
+        assertEquals(List.of(), backfill.getAllocated());
+
+        execute("UPDATE job SET position_count = 2 WHERE job_id = 10");
+        InterviewBackfill grown = new InterviewBackfill("r2");
+        assertTrue(grown.positionsChanged(10));
+
+        // Three new slots by class rank: 4 has room again, 5 still holds company 1, then 6 and 7
+        assertEquals(List.of(new Slot(4, 10), new Slot(6, 10), new Slot(7, 10)), grown.getAllocated());
+    }
+
+    @Test
+    void testJobsOutsideTheResidencyAreNotFound() throws SQLException {
+        execute("INSERT INTO job VALUES (20, 9, 1, 'approved', 'r3')");
+
+        assertFalse(new InterviewBackfill("r2").positionsChanged(20));
+        assertFalse(new InterviewBackfill("r2").jobWithdrawn(99));
+    }
+}
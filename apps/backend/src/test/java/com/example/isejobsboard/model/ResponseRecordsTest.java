@@ -0,0 +1,71 @@
+package com.example.isejobsboard.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The response records replaced per row HashMaps, their JSON must stay byte for byte what the maps produced.
+ */
+class ResponseRecordsTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private void assertSameJson(Object record, Object... keysAndValues) throws Exception {
+        Map<String, Object> map = new HashMap<>();
+
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+
+        assertEquals(mapper.writeValueAsString(map), mapper.writeValueAsString(record));
+    }
+
+    @Test
+    void testUserProfile() throws Exception {
+        assertSameJson(new UserProfile(1, "Ada", null, "ada@example.com"),
+                "user_id", 1, "first_name", "Ada", "last_name", null, "email", "ada@example.com");
+    }
+
+    @Test
+    void testStudentInfo() throws Exception {
+        assertSameJson(new StudentInfo(22334455, 1, 2, true),
+                "student_number", 22334455, "user_id", 1, "year", 2, "ranked", true);
+    }
+
+    @Test
+    void testRepInfo() throws Exception {
+        assertSameJson(new RepInfo(3, 1, 7), "rep_id", 3, "user_id", 1, "company_id", 7);
+    }
+
+    @Test
+    void testCompanyInfo() throws Exception {
+        assertSameJson(new CompanyInfo(7, "Acme", null, 0),
+                "company_id", 7, "name", "Acme", "champion", null, "address_id", 0);
+    }
+
+    @Test
+    void testJobInfo() throws Exception {
+        assertSameJson(new JobInfo("Engineer", "Residency 1", "Builds things", 2, "Acme", "7", "approved",
+                        3000.5f, "https://acme.example", "r1", "Builds"),
+                "job_title", "Engineer", "residency_title", "Residency 1", "description", "Builds things",
+                "position_count", 2, "company_name", "Acme", "company_id", "7", "approval", "approved",
+                "salary", 3000.5f, "website", "https://acme.example", "residency", "r1", "small_description", "Builds");
+    }
+
+    @Test
+    void testAdminUser() throws Exception {
+        assertSameJson(new AdminUser(1, "Ada", "Lovelace", "ada@example.com"),
+                "userId", 1, "firstName", "Ada", "lastName", "Lovelace", "email", "ada@example.com");
+    }
+
+    @Test
+    void testStudentUser() throws Exception {
+        assertSameJson(new StudentUser(1, "Ada", "Lovelace", "ada@example.com", 22334455, "2", 3, false),
+                "userId", 1, "firstName", "Ada", "lastName", "Lovelace", "email", "ada@example.com",
+                "studentNumber", 22334455, "year", "2", "classRank", 3, "isRanked", false);
+    }
+}
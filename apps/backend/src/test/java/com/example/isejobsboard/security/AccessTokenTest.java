@@ -0,0 +1,62 @@
+package com.example.isejobsboard.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokenTest {
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OTHER_KEY = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testVerifyReturnsClaimsOfSignedToken() {
+        AccessToken.Claims claims = new AccessToken.Claims(7, "student", "2", 0, 1_000);
+
+        AccessToken.Claims verified = AccessToken.verify(AccessToken.sign(claims, KEY), KEY, 999);
+
+        assertEquals(claims, verified);
+    }
+
+    @Test
+    void testVerifyKeepsMissingYearAsNull() {
+        AccessToken.Claims claims = new AccessToken.Claims(3, "rep", null, 12, 1_000);
+
+        AccessToken.Claims verified = AccessToken.verify(AccessToken.sign(claims, KEY), KEY, 999);
+
+        assertNotNull(verified);
+        assertNull(verified.year());
+        assertEquals(12, verified.companyId());
+    }
+
+    @Test
+    void testVerifyRejectsExpiredToken() {
+        String token = AccessToken.sign(new AccessToken.Claims(7, "admin", null, 0, 1_000), KEY);
+
+        assertNull(AccessToken.verify(token, KEY, 1_000));
+    }
+
+    @Test
+    void testVerifyRejectsOtherKey() {
+        String token = AccessToken.sign(new AccessToken.Claims(7, "admin", null, 0, 1_000), OTHER_KEY);
+
+        assertNull(AccessToken.verify(token, KEY, 999));
+    }
+
+    @Test
+    void testVerifyRejectsTamperedPayload() {
+        String token = AccessToken.sign(new AccessToken.Claims(7, "student", "1", 0, 1_000), KEY);
+        String forged = AccessToken.sign(new AccessToken.Claims(7, "admin", null, 0, 1_000), OTHER_KEY);
+
+        String tampered = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertNull(AccessToken.verify(tampered, KEY, 999));
+    }
+
+    @Test
+    void testVerifyIgnoresSessionTokens() {
+        assertNull(AccessToken.verify(SessionToken.generate(), KEY, 999));
+        assertNull(AccessToken.verify("not.base64!", KEY, 999));
+    }
+}
@@ -6,6 +6,7 @@ import org.mockito.MockedStatic;
 import java.sql.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -25,7 +26,7 @@ class AuthenticatorTest {
 
             assertNotNull(token);
             verify(mockStatement).setInt(eq(1), eq(1));
-            verify(mockStatement).setString(eq(2), eq(token));
+            verify(mockStatement).setBytes(eq(2), aryEq(SessionToken.digest(token)));
             verify(mockStatement).setTimestamp(eq(3), any(Timestamp.class));
             verify(mockStatement).executeUpdate();
         }
@@ -58,7 +59,7 @@ class AuthenticatorTest {
 
             Authenticator.destroyToken("token123");
 
-            verify(mockStatement).setString(1, "token123");
+            verify(mockStatement).setBytes(eq(1), aryEq(SessionToken.digest("token123")));
             verify(mockStatement).executeUpdate();
         }
     }
@@ -88,7 +89,7 @@ class AuthenticatorTest {
         when(mockStatement.executeQuery()).thenReturn(mockResultSet);
         when(mockResultSet.next()).thenReturn(true, false);
         when(mockResultSet.getTimestamp("expiry")).thenReturn(new Timestamp(System.currentTimeMillis() + 10000));
-        when(mockResultSet.getString("token")).thenReturn("tokenABC");
+        when(mockResultSet.getBytes("token")).thenReturn(SessionToken.digest("tokenABC"));
 
         try (MockedStatic<DriverManager> dm = mockStatic(DriverManager.class)) {
             dm.when(() -> DriverManager.getConnection(any(), any(), any()))
@@ -108,7 +109,7 @@ class AuthenticatorTest {
         when(mockStatement.executeQuery()).thenReturn(mockResultSet);
         when(mockResultSet.next()).thenReturn(true, false);
         when(mockResultSet.getTimestamp("expiry")).thenReturn(new Timestamp(System.currentTimeMillis() - 10000));
-        when(mockResultSet.getString("token")).thenReturn("tokenDEF");
+        when(mockResultSet.getBytes("token")).thenReturn(SessionToken.digest("tokenDEF"));
 
         try (
                 MockedStatic<DriverManager> dm = mockStatic(DriverManager.class);
@@ -251,4 +252,46 @@ class AuthenticatorTest {
             assertThrows(SQLException.class, () -> Authenticator.getAccessLevel(123));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testIssueAccessTokenReturnsNullForRepWithoutCompany() throws Exception {
+        Connection mockConnection = mock(Connection.class);
+        PreparedStatement mockStatement = mock(PreparedStatement.class);
+        ResultSet mockResultSet = mock(ResultSet.class);
+
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, false);
+        when(mockResultSet.getString("table_name")).thenReturn("rep");
+
+        try (MockedStatic<DriverManager> dm = mockStatic(DriverManager.class)) {
+            dm.when(() -> DriverManager.getConnection(any(), any(), any()))
+                    .thenReturn(mockConnection);
+
+            assertNull(Authenticator.issueAccessToken(30));
+        }
+    }
+
+    @Test
+    void testIssueAccessTokenThrowsSQLExceptionIfCompanyLookupFails() throws Exception {
+        Connection mockConnection = mock(Connection.class);
+        PreparedStatement accessLevelStatement = mock(PreparedStatement.class);
+        ResultSet mockResultSet = mock(ResultSet.class);
+        SQLException ex = new SQLException("DB error");
+
+        when(mockConnection.prepareStatement(anyString()))
+                .thenReturn(accessLevelStatement)
+                .thenThrow(ex);
+        when(accessLevelStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getString("table_name")).thenReturn("rep");
+
+        try (MockedStatic<DriverManager> dm = mockStatic(DriverManager.class)) {
+            dm.when(() -> DriverManager.getConnection(any(), any(), any()))
+                    .thenReturn(mockConnection);
+
+            SQLException thrown = assertThrows(SQLException.class, () -> Authenticator.issueAccessToken(30));
+            assertSame(ex, thrown);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.isejobsboard.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testAllowsBurstThenRejectsWithRetryAfter() {
+        // 3 tokens, one back every 10 seconds
+        RateLimiter limiter = new RateLimiter("test", 3, 6);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("1.2.3.4", 0));
+        }
+
+        assertEquals(10, limiter.tryAcquire("1.2.3.4", 0));
+        assertEquals(4, limiter.tryAcquire("1.2.3.4", 6 * SECOND));
+    }
+
+    @Test
+    void testRefillsOverTime() {
+        RateLimiter limiter = new RateLimiter("test", 1, 6);
+
+        assertEquals(0, limiter.tryAcquire("a", 0));
+        assertTrue(limiter.tryAcquire("a", SECOND) > 0);
+        assertEquals(0, limiter.tryAcquire("a", 11 * SECOND));
+    }
+
+    @Test
+    void testKeysHaveSeparateBuckets() {
+        RateLimiter limiter = new RateLimiter("test", 1, 1);
+
+        assertEquals(0, limiter.tryAcquire("alice@example.com", 0));
+        assertTrue(limiter.tryAcquire("alice@example.com", 0) > 0);
+        assertEquals(0, limiter.tryAcquire("bob@example.com", 0));
+    }
+
+    @Test
+    void testEvictsOnlyRefilledBuckets() {
+        RateLimiter limiter = new RateLimiter("test", 2, 60);
+
+        limiter.tryAcquire("idle", 0);
+        limiter.tryAcquire("busy", 0);
+        limiter.tryAcquire("busy", SECOND);
+
+        // idle is full again after 2 seconds, busy was touched a second later
+        limiter.evictIdle(2 * SECOND + SECOND / 2);
+
+        assertEquals(1, limiter.size());
+    }
+}
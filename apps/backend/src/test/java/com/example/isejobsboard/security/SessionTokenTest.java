@@ -0,0 +1,38 @@
+package com.example.isejobsboard.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenTest {
+
+    @Test
+    void testGenerate_IsCompactAndUrlSafe() {
+        String token = SessionToken.generate();
+
+        assertEquals(43, token.length());
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void testGenerate_TokensAreUnique() {
+        assertNotEquals(SessionToken.generate(), SessionToken.generate());
+    }
+
+    @Test
+    void testDigest_IsFixedWidth() {
+        assertEquals(SessionToken.DIGEST_BYTES, SessionToken.digest("a").length);
+        assertEquals(SessionToken.DIGEST_BYTES, SessionToken.digest(SessionToken.generate()).length);
+    }
+
+    @Test
+    void testDigest_SameTokenSameDigest() {
+        String token = SessionToken.generate();
+        assertArrayEquals(SessionToken.digest(token), SessionToken.digest(token));
+    }
+
+    @Test
+    void testDigest_DifferentTokensDifferentDigests() {
+        assertFalse(java.util.Arrays.equals(SessionToken.digest("token1"), SessionToken.digest("token2")));
+    }
+}